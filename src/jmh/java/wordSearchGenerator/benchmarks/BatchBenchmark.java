@@ -0,0 +1,63 @@
+package wordSearchGenerator.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import wordSearchGenerator.generators.BatchWordSearchGenerator;
+import wordSearchGenerator.models.FillType;
+import wordSearchGenerator.models.Puzzle;
+import wordSearchGenerator.models.PuzzleSpec;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Puzzles per second of BatchWordSearchGenerator.generateAll() by parallelism,
+ * compare the scores across parallelism to see how it scales with cores
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BatchBenchmark {
+    private static final int BATCH_SIZE = 1000;
+
+    @Param({"1", "2", "4", "8"})
+    public int parallelism;
+
+    @Param({"15", "50"})
+    public int size;
+
+    private BatchWordSearchGenerator mBatch;
+    private List<PuzzleSpec> mSpecs;
+
+    @Setup
+    public void setUp() {
+        mBatch = new BatchWordSearchGenerator(parallelism);
+        mSpecs = Collections.nCopies(BATCH_SIZE, new PuzzleSpec(size, size, "hello", FillType.CharactersOfTheWord));
+    }
+
+    @TearDown
+    public void tearDown() {
+        mBatch.shutdown();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public List<Puzzle> generateAll() {
+        return mBatch.generateAll(mSpecs);
+    }
+}
@@ -0,0 +1,116 @@
+package wordSearchGenerator.benchmarks;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import wordSearchGenerator.generators.WordSearchGenerator;
+import wordSearchGenerator.models.FillType;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of WordSearchGenerator.build() over grid size, word and fill type.
+ * Run with -prof gc (or through main) to get the allocation rate,
+ * the builds, failures and backtracks counters count the puzzles built, the times build() started over
+ * and the times a cell cleared its neighbourhood
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BuildBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Spec {
+        @Param({"10", "100", "1000"})
+        public int size;
+
+        @Param({"hey", "hello", "timewatch"})
+        public String word;
+
+        @Param({"RandomCharacters", "CharactersOfTheWord"})
+        public FillType fillType;
+
+        @Param({"false", "true"})
+        public boolean backtracking;
+    }
+
+    /**
+     * Words made of one repeated character can only be built with the full alphabet,
+     * every fill from the word's own characters would recreate the word
+     */
+    @State(Scope.Benchmark)
+    public static class RepetitiveSpec {
+        @Param({"10", "100", "1000"})
+        public int size;
+
+        @Param({"aaaa", "aaaaaaaa"})
+        public String word;
+    }
+
+    /**
+     * JMH sums EVENTS counters over the iteration, so they're raw counts.
+     * Retries per puzzle is failures / builds, backtracks per puzzle backtracks / builds
+     */
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class Retries {
+        public long builds;
+        public long failures;
+        public long backtracks;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            builds = 0;
+            failures = 0;
+            backtracks = 0;
+        }
+
+        void record(WordSearchGenerator w) {
+            builds++;
+            failures += w.getBuildFailures();
+            backtracks += w.getBacktracks();
+        }
+    }
+
+    @Benchmark
+    public char[][] build(Spec spec, Retries retries) {
+        WordSearchGenerator w = new WordSearchGenerator(spec.size, spec.size, spec.word, spec.fillType);
+        w.setBacktracking(spec.backtracking);
+        char[][] grid = w.build();
+        retries.record(w);
+        return grid;
+    }
+
+    @Benchmark
+    public char[][] buildRepetitive(RepetitiveSpec spec, Retries retries) {
+        WordSearchGenerator w = new WordSearchGenerator(spec.size, spec.size, spec.word, FillType.RandomCharacters);
+        char[][] grid = w.build();
+        retries.record(w);
+        return grid;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(BuildBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
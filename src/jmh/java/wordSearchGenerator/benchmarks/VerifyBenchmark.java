@@ -0,0 +1,75 @@
+package wordSearchGenerator.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import wordSearchGenerator.generators.WordSearchGenerator;
+import wordSearchGenerator.models.FillType;
+import wordSearchGenerator.scanners.GridVerifier;
+import wordSearchGenerator.scanners.OccurrenceScanner;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Microseconds to count every word of a generated puzzle, the scanner and the scalar and vector GridVerifier.
+ * The fork adds jdk.incubator.vector, so this one needs JDK 17 or later
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+@State(Scope.Benchmark)
+public class VerifyBenchmark {
+    private static final List<String> WORDS = Arrays.asList("apple", "banana", "cherry", "grape", "lemon", "mango");
+
+    @Param({"100", "1000"})
+    public int size;
+
+    @Param({"RandomCharacters", "CharactersOfTheWord"})
+    public FillType fillType;
+
+    private char[][] mGrid;
+    private byte[] mBytes;
+    private OccurrenceScanner mScanner;
+    private GridVerifier mScalar;
+    private GridVerifier mVector;
+
+    @Setup
+    public void setUp() {
+        WordSearchGenerator generator = new WordSearchGenerator(size, size, WORDS, fillType);
+        generator.setSeed(1);
+        mGrid = generator.build();
+        mScanner = new OccurrenceScanner(WORDS);
+        mScalar = new GridVerifier(WORDS);
+        mVector = GridVerifier.create(WORDS);
+        if (!GridVerifier.isVectorAvailable())
+            throw new IllegalStateException("jdk.incubator.vector isn't available");
+        mBytes = mScalar.toBytes(mGrid);
+    }
+
+    @Benchmark
+    public int[] scanner() {
+        return mScanner.count(mGrid);
+    }
+
+    @Benchmark
+    public int[] scalar() {
+        return mScalar.count(mBytes, size, size);
+    }
+
+    @Benchmark
+    public int[] vector() {
+        return mVector.count(mBytes, size, size);
+    }
+}
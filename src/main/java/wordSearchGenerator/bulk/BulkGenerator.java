@@ -0,0 +1,243 @@
+package wordSearchGenerator.bulk;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Generates a BulkJob into a directory of PuzzleWriter segments, one manifest per shard and a job manifest at the end.
+ * <pre>
+ * run    specs dir [options]   starts worker JVMs on this machine until every shard is done, then verifies
+ * work   specs dir [options]   one worker, claims and builds shards until none are left
+ * verify specs dir [options]   checks every shard against its checksums and writes the job manifest
+ *
+ * --seed N            first seed, puzzle k is built with seed + k (0)
+ * --shard-size N      puzzles per shard (10000)
+ * --segment-size N    puzzles per output file (1000)
+ * --processes N       worker JVMs for run (available processors)
+ * --worker ID         name of a worker's claims and work directory, unique per worker (host and process id)
+ * --lease-seconds N   a claim untouched this long belongs to a crashed worker and is taken over (600)
+ * </pre>
+ * Workers on other machines join a job by running work against the same directory with the same options.
+ * Rerunning any of the commands after a crash picks up where the job stopped, finished shards are never built again
+ */
+public class BulkGenerator {
+    public static final String JOB_MANIFEST = "job.manifest";
+
+    /**
+     * Rounds of worker processes run starts before giving up on shards that keep failing
+     */
+    private static final int MAX_ROUNDS = 3;
+
+    private BulkGenerator() {
+    }
+
+    public static class Options {
+        public long seed = 0;
+        public int shardSize = 10000;
+        public int segmentSize = 1000;
+        public int processes = Runtime.getRuntime().availableProcessors();
+        public String worker = defaultWorker();
+        public long leaseMillis = 600 * 1000L;
+
+        static Options parse(String[] args, int from) {
+            Options o = new Options();
+            for (int i = from; i < args.length; i += 2) {
+                if (i + 1 == args.length)
+                    throw new IllegalArgumentException("No value for " + args[i]);
+                String value = args[i + 1];
+                if (args[i].equals("--seed"))
+                    o.seed = Long.parseLong(value);
+                else if (args[i].equals("--shard-size"))
+                    o.shardSize = Integer.parseInt(value);
+                else if (args[i].equals("--segment-size"))
+                    o.segmentSize = Integer.parseInt(value);
+                else if (args[i].equals("--processes"))
+                    o.processes = Integer.parseInt(value);
+                else if (args[i].equals("--worker"))
+                    o.worker = value;
+                else if (args[i].equals("--lease-seconds"))
+                    o.leaseMillis = Long.parseLong(value) * 1000;
+                else
+                    throw new IllegalArgumentException("Unknown option " + args[i]);
+            }
+            return o;
+        }
+
+        BulkJob job(File specFile) throws IOException {
+            return BulkJob.fromFile(specFile, seed, shardSize, segmentSize);
+        }
+
+        private static String defaultWorker() {
+            // "pid@host" on the JDKs that have it
+            String name = java.lang.management.ManagementFactory.getRuntimeMXBean().getName();
+            return name.replaceAll("[^A-Za-z0-9@._-]", "_");
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 3) {
+            System.err.println("Usage: BulkGenerator run|work|verify specs dir [options], see the class documentation");
+            System.exit(2);
+        }
+        File specFile = new File(args[1]);
+        File dir = new File(args[2]);
+        Options options = Options.parse(args, 3);
+        boolean ok;
+        if (args[0].equals("run")) {
+            ok = run(specFile, dir, options);
+        } else if (args[0].equals("work")) {
+            int built = work(options.job(specFile), dir, options.worker, options.leaseMillis);
+            System.out.println(options.worker + " built " + built + " shards");
+            ok = true;
+        } else if (args[0].equals("verify")) {
+            ok = verify(options.job(specFile), dir);
+        } else {
+            System.err.println("Unknown command " + args[0]);
+            System.exit(2);
+            return;
+        }
+        System.exit(ok ? 0 : 1);
+    }
+
+    /**
+     * Claims and builds shards until every one is done or claimed by another worker
+     *
+     * @return number of shards this worker built
+     */
+    public static int work(BulkJob job, File dir, String worker, long leaseMillis) throws IOException {
+        if (!dir.isDirectory() && !dir.mkdirs())
+            throw new IOException("Couldn't create " + dir);
+        final WorkQueue queue = new WorkQueue(job, dir, worker, leaseMillis);
+        File workDir = workDir(dir, worker);
+        // Left over if this worker crashed before
+        deleteRecursively(workDir);
+        ShardRunner runner = new ShardRunner(job, dir, workDir);
+        int built = 0;
+        for (int shard; (shard = queue.claimNext()) >= 0; ) {
+            try {
+                runner.run(shard, new ShardRunner.Progress() {
+                    public void onSegment(int shard, int segment) {
+                        queue.heartbeat(shard);
+                    }
+                });
+                built++;
+            } finally {
+                queue.release(shard);
+            }
+        }
+        deleteRecursively(workDir);
+        return built;
+    }
+
+    /**
+     * Local coordinator. Starts up to options.processes worker JVMs on this machine, and again for shards a crashed
+     * worker left, then verifies the job
+     *
+     * @return true if every shard is done and matches its checksums
+     */
+    public static boolean run(File specFile, File dir, Options options) throws IOException, InterruptedException {
+        BulkJob job = options.job(specFile);
+        if (!dir.isDirectory() && !dir.mkdirs())
+            throw new IOException("Couldn't create " + dir);
+        WorkQueue queue = new WorkQueue(job, dir, options.worker, options.leaseMillis);
+        for (int round = 0; round < MAX_ROUNDS; round++) {
+            int remaining = 0;
+            for (int shard = 0; shard < job.getShardCount(); shard++)
+                if (!queue.isDone(shard))
+                    remaining++;
+            if (remaining == 0)
+                break;
+            List<String> workers = new ArrayList<String>();
+            List<Process> processes = new ArrayList<Process>();
+            for (int i = 0; i < Math.min(options.processes, remaining); i++) {
+                String worker = options.worker + "-" + round + "-" + i;
+                workers.add(worker);
+                processes.add(new ProcessBuilder(workerCommand(specFile, dir, options, worker)).inheritIO().start());
+            }
+            for (int i = 0; i < processes.size(); i++) {
+                int exit = processes.get(i).waitFor();
+                if (exit != 0)
+                    System.err.println(workers.get(i) + " exited with " + exit);
+                // Gone either way, nothing of its is worth keeping or waiting a lease for
+                WorkQueue.releaseAll(dir, workers.get(i));
+                deleteRecursively(workDir(dir, workers.get(i)));
+            }
+        }
+        return verify(job, dir);
+    }
+
+    /**
+     * Checks every shard against the checksums of its manifest and, if they all match,
+     * writes the job manifest listing the shard manifests and their checksums
+     *
+     * @return true if every shard is done and matches
+     */
+    public static boolean verify(BulkJob job, File dir) throws IOException {
+        List<Integer> missing = new ArrayList<Integer>();
+        for (int shard = 0; shard < job.getShardCount(); shard++) {
+            ShardManifest manifest = ShardManifest.read(dir, shard);
+            if (manifest == null || !manifest.job.equals(job.getFingerprint()) || !manifest.verify(dir, true))
+                missing.add(shard);
+        }
+        if (!missing.isEmpty()) {
+            System.err.println(missing.size() + " of " + job.getShardCount() + " shards missing or damaged: " + missing);
+            return false;
+        }
+        File tmp = new File(dir, JOB_MANIFEST + ".tmp");
+        Writer out = new OutputStreamWriter(new FileOutputStream(tmp), "UTF-8");
+        try {
+            out.write("job " + job.getFingerprint() + "\n");
+            out.write("puzzles " + job.getTotal() + "\n");
+            for (int shard = 0; shard < job.getShardCount(); shard++) {
+                String name = ShardManifest.fileName(shard);
+                out.write("manifest " + name + " " + String.format("%08x", ShardManifest.checksum(new File(dir, name))) + "\n");
+            }
+        } finally {
+            out.close();
+        }
+        Files.move(tmp.toPath(), new File(dir, JOB_MANIFEST).toPath(),
+                StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return true;
+    }
+
+    private static List<String> workerCommand(File specFile, File dir, Options options, String worker) {
+        List<String> command = new ArrayList<String>();
+        command.add(new File(new File(System.getProperty("java.home"), "bin"), "java").getPath());
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add(BulkGenerator.class.getName());
+        command.add("work");
+        command.add(specFile.getPath());
+        command.add(dir.getPath());
+        command.add("--seed");
+        command.add(String.valueOf(options.seed));
+        command.add("--shard-size");
+        command.add(String.valueOf(options.shardSize));
+        command.add("--segment-size");
+        command.add(String.valueOf(options.segmentSize));
+        command.add("--lease-seconds");
+        command.add(String.valueOf(options.leaseMillis / 1000));
+        command.add("--worker");
+        command.add(worker);
+        return command;
+    }
+
+    private static File workDir(File dir, String worker) {
+        return new File(new File(dir, "tmp"), worker);
+    }
+
+    private static void deleteRecursively(File file) throws IOException {
+        File[] children = file.listFiles();
+        if (children != null)
+            for (File child : children)
+                deleteRecursively(child);
+        Files.deleteIfExists(file.toPath());
+    }
+}
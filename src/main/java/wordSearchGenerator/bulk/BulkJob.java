@@ -0,0 +1,159 @@
+package wordSearchGenerator.bulk;
+
+import wordSearchGenerator.generators.FeasibilityCheck;
+import wordSearchGenerator.models.Feasibility;
+import wordSearchGenerator.models.FeasibilityReport;
+import wordSearchGenerator.models.FillType;
+import wordSearchGenerator.models.PuzzleSpec;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * A bulk run of puzzles described by a spec file, one spec per line:
+ * <pre>
+ * # rows cols fill count words
+ * 15 15 RandomCharacters 100000 apple,banana,cherry
+ * 10 30 CharactersOfTheWord 5000 hello,world
+ * </pre>
+ * Puzzles are numbered across the whole file in order and puzzle k is built with seed + k,
+ * so any range of them comes out the same whichever process, machine or run builds it.
+ * The range is cut into shards of shardSize puzzles, the unit of work a process claims and resumes by
+ */
+public class BulkJob {
+    private final List<PuzzleSpec> mSpecs;
+    private final long[] mEnds;
+    private final long mSeed;
+    private final int mShardSize;
+    private final int mSegmentSize;
+    private final String mFingerprint;
+
+    /**
+     * @param specs       one line per spec as described above
+     * @param shardSize   puzzles per shard
+     * @param segmentSize puzzles per output file of a shard
+     * @throws IllegalArgumentException if a line can't be parsed or FeasibilityCheck finds a spec infeasible
+     */
+    public BulkJob(Reader specs, long seed, int shardSize, int segmentSize) throws IOException {
+        if (shardSize <= 0 || segmentSize <= 0)
+            throw new IllegalArgumentException("Shard and segment sizes have to be positive");
+        mSpecs = new ArrayList<PuzzleSpec>();
+        List<Long> ends = new ArrayList<Long>();
+        StringBuilder canonical = new StringBuilder();
+        long total = 0;
+        BufferedReader reader = new BufferedReader(specs);
+        int lineNumber = 0;
+        for (String line; (line = reader.readLine()) != null; ) {
+            lineNumber++;
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#"))
+                continue;
+            String[] fields = line.split("\\s+");
+            if (fields.length != 5)
+                throw new IllegalArgumentException("Line " + lineNumber + ": expected rows cols fill count words");
+            PuzzleSpec spec;
+            long count;
+            try {
+                spec = new PuzzleSpec(Integer.parseInt(fields[0]), Integer.parseInt(fields[1]),
+                        Arrays.asList(fields[4].split(",")), FillType.valueOf(fields[2]));
+                count = Long.parseLong(fields[3]);
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Line " + lineNumber + ": " + e.getMessage());
+            }
+            if (count <= 0)
+                throw new IllegalArgumentException("Line " + lineNumber + ": count has to be positive");
+            FeasibilityReport report = FeasibilityCheck.analyze(spec);
+            if (report.feasibility == Feasibility.Infeasible)
+                throw new IllegalArgumentException("Line " + lineNumber + ": " + report.reasons);
+            mSpecs.add(spec);
+            total += count;
+            ends.add(total);
+            canonical.append(line).append('\n');
+        }
+        if (mSpecs.isEmpty())
+            throw new IllegalArgumentException("No specs");
+        mEnds = new long[ends.size()];
+        for (int i = 0; i < mEnds.length; i++)
+            mEnds[i] = ends.get(i);
+        mSeed = seed;
+        mShardSize = shardSize;
+        mSegmentSize = segmentSize;
+        canonical.append(seed).append(' ').append(shardSize).append(' ').append(segmentSize);
+        CRC32 crc = new CRC32();
+        crc.update(canonical.toString().getBytes("UTF-8"));
+        mFingerprint = String.format("%08x", crc.getValue());
+    }
+
+    public static BulkJob fromFile(File specFile, long seed, int shardSize, int segmentSize) throws IOException {
+        Reader reader = new InputStreamReader(new FileInputStream(specFile), "UTF-8");
+        try {
+            return new BulkJob(reader, seed, shardSize, segmentSize);
+        } finally {
+            reader.close();
+        }
+    }
+
+    public static BulkJob fromString(String specs, long seed, int shardSize, int segmentSize) throws IOException {
+        return new BulkJob(new StringReader(specs), seed, shardSize, segmentSize);
+    }
+
+    public long getTotal() {
+        return mEnds[mEnds.length - 1];
+    }
+
+    public int getShardCount() {
+        long shards = (getTotal() + mShardSize - 1) / mShardSize;
+        if (shards > Integer.MAX_VALUE)
+            throw new IllegalStateException("Too many shards, use a bigger shard size");
+        return (int) shards;
+    }
+
+    public long shardStart(int shard) {
+        return (long) shard * mShardSize;
+    }
+
+    /**
+     * @return one past the last puzzle of the shard
+     */
+    public long shardEnd(int shard) {
+        return Math.min(getTotal(), shardStart(shard) + mShardSize);
+    }
+
+    /**
+     * @return the spec puzzle k is built from, with its seed
+     */
+    public PuzzleSpec specAt(long k) {
+        if (k < 0 || k >= getTotal())
+            throw new IndexOutOfBoundsException("Puzzle " + k + " of " + getTotal());
+        int i = Arrays.binarySearch(mEnds, k);
+        // An exact hit is the first puzzle of the next spec
+        i = i >= 0 ? i + 1 : -i - 1;
+        PuzzleSpec spec = mSpecs.get(i);
+        return new PuzzleSpec(spec.nRow, spec.nCol, spec.words, spec.fillType, mSeed + k);
+    }
+
+    public List<PuzzleSpec> getSpecs() {
+        return Collections.unmodifiableList(mSpecs);
+    }
+
+    public int getSegmentSize() {
+        return mSegmentSize;
+    }
+
+    /**
+     * Changes with the specs, seed or sizes, so output of another job in the same directory is never taken as done
+     */
+    public String getFingerprint() {
+        return mFingerprint;
+    }
+}
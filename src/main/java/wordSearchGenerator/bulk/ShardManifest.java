@@ -0,0 +1,143 @@
+package wordSearchGenerator.bulk;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * What a finished shard wrote, the last file a shard writes so its presence marks the shard done:
+ * <pre>
+ * job    fingerprint of the BulkJob
+ * shard  index first-puzzle end-puzzle
+ * segment file puzzles bytes crc32
+ * </pre>
+ * with one segment line per output file, in order
+ */
+public class ShardManifest {
+    public final String job;
+    public final int shard;
+    public final long start;
+    public final long end;
+    public final List<Segment> segments;
+
+    public static class Segment {
+        public final String file;
+        public final int puzzles;
+        public final long bytes;
+        public final long crc;
+
+        public Segment(String file, int puzzles, long bytes, long crc) {
+            this.file = file;
+            this.puzzles = puzzles;
+            this.bytes = bytes;
+            this.crc = crc;
+        }
+    }
+
+    public ShardManifest(String job, int shard, long start, long end, List<Segment> segments) {
+        this.job = job;
+        this.shard = shard;
+        this.start = start;
+        this.end = end;
+        this.segments = Collections.unmodifiableList(new ArrayList<Segment>(segments));
+    }
+
+    static String fileName(int shard) {
+        return String.format("shard-%05d.manifest", shard);
+    }
+
+    static String segmentName(int shard, int segment) {
+        return String.format("shard-%05d-%04d.wsg", shard, segment);
+    }
+
+    /**
+     * Writes to a temporary file first and moves it into place, a crash never leaves half a manifest
+     */
+    void write(File dir) throws IOException {
+        File tmp = new File(dir, fileName(shard) + ".tmp");
+        Writer out = new OutputStreamWriter(new FileOutputStream(tmp), "UTF-8");
+        try {
+            out.write("job " + job + "\n");
+            out.write("shard " + shard + " " + start + " " + end + "\n");
+            for (Segment s : segments)
+                out.write("segment " + s.file + " " + s.puzzles + " " + s.bytes + " " + String.format("%08x", s.crc) + "\n");
+        } finally {
+            out.close();
+        }
+        Files.move(tmp.toPath(), new File(dir, fileName(shard)).toPath(),
+                StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * @return the shard's manifest, null if there is none or it can't be parsed
+     */
+    static ShardManifest read(File dir, int shard) throws IOException {
+        File file = new File(dir, fileName(shard));
+        if (!file.isFile())
+            return null;
+        BufferedReader in = new BufferedReader(new InputStreamReader(new FileInputStream(file), "UTF-8"));
+        try {
+            String job = null;
+            long start = -1, end = -1;
+            List<Segment> segments = new ArrayList<Segment>();
+            for (String line; (line = in.readLine()) != null; ) {
+                String[] f = line.split(" ");
+                if (f[0].equals("job") && f.length == 2) {
+                    job = f[1];
+                } else if (f[0].equals("shard") && f.length == 4 && Integer.parseInt(f[1]) == shard) {
+                    start = Long.parseLong(f[2]);
+                    end = Long.parseLong(f[3]);
+                } else if (f[0].equals("segment") && f.length == 5) {
+                    segments.add(new Segment(f[1], Integer.parseInt(f[2]), Long.parseLong(f[3]), Long.parseLong(f[4], 16)));
+                } else {
+                    return null;
+                }
+            }
+            return job == null || start < 0 ? null : new ShardManifest(job, shard, start, end, segments);
+        } catch (NumberFormatException e) {
+            return null;
+        } finally {
+            in.close();
+        }
+    }
+
+    /**
+     * @param checksums false to only check the segments are there with the right length, without reading them
+     * @return true if every segment is there with the length and checksum the manifest says
+     */
+    boolean verify(File dir, boolean checksums) throws IOException {
+        long puzzles = 0;
+        for (Segment s : segments) {
+            File file = new File(dir, s.file);
+            if (!file.isFile() || file.length() != s.bytes || (checksums && checksum(file) != s.crc))
+                return false;
+            puzzles += s.puzzles;
+        }
+        return puzzles == end - start;
+    }
+
+    static long checksum(File file) throws IOException {
+        CRC32 crc = new CRC32();
+        byte[] buffer = new byte[1 << 16];
+        InputStream in = new FileInputStream(file);
+        try {
+            for (int n; (n = in.read(buffer)) > 0; )
+                crc.update(buffer, 0, n);
+        } finally {
+            in.close();
+        }
+        return crc.getValue();
+    }
+}
@@ -0,0 +1,98 @@
+package wordSearchGenerator.bulk;
+
+import wordSearchGenerator.generators.WordSearchGenerator;
+import wordSearchGenerator.io.PuzzleWriter;
+import wordSearchGenerator.models.PuzzleSpec;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Builds the puzzles of a shard into PuzzleWriter segments. They are written to a directory of the worker's own
+ * and only moved into the output directory once the whole shard is built, manifest last,
+ * so a crash at any point leaves nothing a later run takes as finished
+ */
+class ShardRunner {
+    interface Progress {
+        /**
+         * Called after every segment, lets a worker show it's still alive
+         */
+        void onSegment(int shard, int segment) throws IOException;
+    }
+
+    private final BulkJob mJob;
+    private final File mDir;
+    private final File mWorkDir;
+    /**
+     * One generator and output grid per grid size, the generator switched between word lists with setWords
+     */
+    private final Map<Long, WordSearchGenerator> mGenerators = new HashMap<Long, WordSearchGenerator>();
+    private final Map<Long, char[][]> mGrids = new HashMap<Long, char[][]>();
+    /**
+     * Every segment is written through this buffer, a mapping per segment would only be let go of at GC
+     * and a shard of small segments would run out of them
+     */
+    private final ByteBuffer mBuffer = ByteBuffer.allocate(1 << 20);
+
+    ShardRunner(BulkJob job, File dir, File workDir) {
+        mJob = job;
+        mDir = dir;
+        mWorkDir = workDir;
+    }
+
+    ShardManifest run(int shard, Progress progress) throws IOException {
+        if (!mWorkDir.isDirectory() && !mWorkDir.mkdirs())
+            throw new IOException("Couldn't create " + mWorkDir);
+        long start = mJob.shardStart(shard);
+        long end = mJob.shardEnd(shard);
+        List<ShardManifest.Segment> segments = new ArrayList<ShardManifest.Segment>();
+        for (long from = start; from < end; from += mJob.getSegmentSize()) {
+            long to = Math.min(end, from + mJob.getSegmentSize());
+            String name = ShardManifest.segmentName(shard, segments.size());
+            File file = new File(mWorkDir, name);
+            FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+            PuzzleWriter writer = new PuzzleWriter(channel, mBuffer);
+            try {
+                for (long k = from; k < to; k++)
+                    build(mJob.specAt(k), writer);
+                writer.force();
+            } finally {
+                writer.close();
+            }
+            segments.add(new ShardManifest.Segment(name, (int) (to - from), file.length(), ShardManifest.checksum(file)));
+            if (progress != null)
+                progress.onSegment(shard, segments.size() - 1);
+        }
+        for (ShardManifest.Segment s : segments)
+            Files.move(new File(mWorkDir, s.file).toPath(), new File(mDir, s.file).toPath(),
+                    StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        ShardManifest manifest = new ShardManifest(mJob.getFingerprint(), shard, start, end, segments);
+        manifest.write(mDir);
+        return manifest;
+    }
+
+    private void build(PuzzleSpec spec, PuzzleWriter writer) throws IOException {
+        Long size = (long) spec.nRow << 32 | spec.nCol;
+        WordSearchGenerator generator = mGenerators.get(size);
+        if (generator == null) {
+            generator = new WordSearchGenerator(spec.nRow, spec.nCol, spec.words, spec.fillType);
+            mGenerators.put(size, generator);
+            mGrids.put(size, new char[spec.nRow][spec.nCol]);
+        } else {
+            generator.setWords(spec.words, spec.fillType);
+        }
+        generator.setSeed(spec.seed);
+        char[][] grid = generator.buildInto(mGrids.get(size));
+        writer.write(grid, generator.getPlacements());
+    }
+}
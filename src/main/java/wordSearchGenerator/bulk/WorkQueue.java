@@ -0,0 +1,114 @@
+package wordSearchGenerator.bulk;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+
+/**
+ * Hands out the shards of a job through claim files in the output directory, so workers in any number of processes,
+ * on any number of machines sharing the directory, split the job without talking to each other.
+ * <p>
+ * A worker claims a shard by creating its claim file, which only one worker can, and touches it after every segment.
+ * A claim nobody touched for the lease is taken to belong to a crashed worker and can be taken over.
+ * Shards come out the same whoever builds them, so the rare case of two workers building one shard
+ * costs time but never corrupts the output
+ */
+class WorkQueue {
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private final BulkJob mJob;
+    private final File mDir;
+    private final String mWorker;
+    private final long mLeaseMillis;
+
+    WorkQueue(BulkJob job, File dir, String worker, long leaseMillis) {
+        mJob = job;
+        mDir = dir;
+        mWorker = worker;
+        mLeaseMillis = leaseMillis;
+    }
+
+    static String claimName(int shard) {
+        return String.format("shard-%05d.claim", shard);
+    }
+
+    /**
+     * @return true if the shard has a manifest of this job and its segments are all there
+     */
+    boolean isDone(int shard) throws IOException {
+        ShardManifest manifest = ShardManifest.read(mDir, shard);
+        return manifest != null && manifest.job.equals(mJob.getFingerprint()) && manifest.verify(mDir, false);
+    }
+
+    /**
+     * @return the next shard that isn't done, now claimed by this worker, -1 if every shard is done or claimed
+     */
+    int claimNext() throws IOException {
+        for (int shard = 0; shard < mJob.getShardCount(); shard++) {
+            if (isDone(shard) || !claim(shard))
+                continue;
+            // Another worker could have finished it between the check and the claim
+            if (isDone(shard)) {
+                release(shard);
+                continue;
+            }
+            return shard;
+        }
+        return -1;
+    }
+
+    private boolean claim(int shard) throws IOException {
+        File claim = new File(mDir, claimName(shard));
+        long touched = claim.lastModified();
+        if (touched != 0 && System.currentTimeMillis() - touched > mLeaseMillis) {
+            // Only one worker can move the stale claim away, the rest find it gone
+            File stale = new File(mDir, claimName(shard) + "." + mWorker + ".stale");
+            try {
+                Files.move(claim.toPath(), stale.toPath(), StandardCopyOption.ATOMIC_MOVE);
+                Files.delete(stale.toPath());
+            } catch (NoSuchFileException e) {
+                return false;
+            }
+        }
+        try {
+            Files.write(Files.createFile(claim.toPath()), mWorker.getBytes(UTF_8));
+            return true;
+        } catch (FileAlreadyExistsException e) {
+            return false;
+        }
+    }
+
+    void heartbeat(int shard) {
+        new File(mDir, claimName(shard)).setLastModified(System.currentTimeMillis());
+    }
+
+    void release(int shard) throws IOException {
+        Files.deleteIfExists(new File(mDir, claimName(shard)).toPath());
+    }
+
+    /**
+     * Drops the claims of a worker known to be gone, for example a crashed child of the local coordinator,
+     * without waiting out the lease
+     */
+    static void releaseAll(File dir, String worker) throws IOException {
+        File[] claims = dir.listFiles();
+        if (claims == null)
+            return;
+        byte[] owner = worker.getBytes(UTF_8);
+        for (File claim : claims) {
+            if (!claim.getName().endsWith(".claim"))
+                continue;
+            try {
+                if (Arrays.equals(owner, Files.readAllBytes(claim.toPath())))
+                    Files.deleteIfExists(claim.toPath());
+            } catch (NoSuchFileException e) {
+                // Released by its owner meanwhile
+            }
+        }
+    }
+}
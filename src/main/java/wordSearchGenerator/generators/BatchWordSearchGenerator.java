@@ -0,0 +1,128 @@
+package wordSearchGenerator.generators;
+
+import wordSearchGenerator.models.Puzzle;
+import wordSearchGenerator.models.PuzzleSpec;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Generates many word searches in parallel on a fork join pool.
+ * Every worker thread keeps the engine of the last spec it built,
+ * so runs of the same spec reuse one grid per worker instead of allocating per puzzle.
+ * Seeded specs give the same puzzle whichever worker builds them
+ */
+public class BatchWordSearchGenerator {
+    /**
+     * Number of leaf tasks per thread, enough to balance specs that take different amounts of time
+     */
+    private static final int TASKS_PER_THREAD = 4;
+
+    private final ForkJoinPool mPool;
+
+    public BatchWordSearchGenerator() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    public BatchWordSearchGenerator(int parallelism) {
+        mPool = new ForkJoinPool(parallelism, new ForkJoinPool.ForkJoinWorkerThreadFactory() {
+            public ForkJoinWorkerThread newThread(ForkJoinPool pool) {
+                return new Worker(pool);
+            }
+        }, null, false);
+    }
+
+    /**
+     * @return one puzzle for each spec, in the same order as the specs
+     */
+    public List<Puzzle> generateAll(List<PuzzleSpec> specs) {
+        if (specs.isEmpty())
+            return Collections.emptyList();
+        PuzzleSpec[] in = specs.toArray(new PuzzleSpec[specs.size()]);
+        Puzzle[] out = new Puzzle[in.length];
+        int threshold = Math.max(1, in.length / (mPool.getParallelism() * TASKS_PER_THREAD));
+        mPool.invoke(new GenerateTask(in, out, 0, in.length, threshold));
+        return Arrays.asList(out);
+    }
+
+    public int getParallelism() {
+        return mPool.getParallelism();
+    }
+
+    public void shutdown() {
+        mPool.shutdown();
+    }
+
+    private static class GenerateTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final PuzzleSpec[] mSpecs;
+        private final Puzzle[] mPuzzles;
+        private final int mFrom;
+        private final int mTo;
+        private final int mThreshold;
+
+        GenerateTask(PuzzleSpec[] specs, Puzzle[] puzzles, int from, int to, int threshold) {
+            mSpecs = specs;
+            mPuzzles = puzzles;
+            mFrom = from;
+            mTo = to;
+            mThreshold = threshold;
+        }
+
+        @Override
+        protected void compute() {
+            if (mTo - mFrom > mThreshold) {
+                int mid = (mFrom + mTo) >>> 1;
+                invokeAll(new GenerateTask(mSpecs, mPuzzles, mFrom, mid, mThreshold),
+                        new GenerateTask(mSpecs, mPuzzles, mid, mTo, mThreshold));
+                return;
+            }
+            // The submitting thread can end up running a task itself, it gets a slot of its own
+            Thread t = Thread.currentThread();
+            EngineSlot slot = t instanceof Worker ? ((Worker) t).mSlot : new EngineSlot();
+            for (int i = mFrom; i < mTo; i++)
+                mPuzzles[i] = slot.generate(mSpecs[i]);
+        }
+    }
+
+    /**
+     * Holds the engine of the last generated spec and a random source of its own
+     */
+    private static class EngineSlot {
+        private final RandomSource mRandom = new Xoshiro128PlusPlus();
+        private PuzzleSpec mSpec;
+        private WordSearchEngine mEngine;
+        private WordProfile mProfile;
+
+        Puzzle generate(PuzzleSpec spec) {
+            // Specs that only differ by seed share the engine
+            PuzzleSpec engineSpec = spec.withoutSeed();
+            if (!engineSpec.equals(mSpec)) {
+                // Specs with the same words but another size or fill still share the profile
+                if (mSpec == null || !spec.words.equals(mSpec.words))
+                    mProfile = new WordProfile(spec.words.toArray(new String[spec.words.size()]));
+                mEngine = new WordSearchEngine(spec.nRow, spec.nCol, mProfile,
+                        WordSearchGenerator.getFillChars(spec.words, spec.fillType));
+                mSpec = engineSpec;
+            }
+            mEngine.setRandom(spec.seed == null ? mRandom : new Xoshiro128PlusPlus(spec.seed));
+            mEngine.build();
+            char[][] grid = new char[spec.nRow][spec.nCol];
+            mEngine.copyInto(grid);
+            return new Puzzle(grid, mEngine.getPlacements());
+        }
+    }
+
+    private static class Worker extends ForkJoinWorkerThread {
+        private final EngineSlot mSlot = new EngineSlot();
+
+        Worker(ForkJoinPool pool) {
+            super(pool);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package wordSearchGenerator.generators;
+
+import wordSearchGenerator.models.BuildStatus;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Stops a build from another thread or once a deadline passes. A build checks its token between
+ * retries and every few hundred cells, so it stops within a fraction of a retry.
+ * Interrupting the building thread counts as cancelling
+ */
+public class CancellationToken {
+    private final long mDeadline;
+    private final boolean mHasDeadline;
+    private volatile boolean mCancelled = false;
+
+    public CancellationToken() {
+        mDeadline = 0;
+        mHasDeadline = false;
+    }
+
+    private CancellationToken(long deadlineNanos) {
+        mDeadline = deadlineNanos;
+        mHasDeadline = true;
+    }
+
+    /**
+     * @return a token that expires the given time from now, it can also be cancelled before then
+     */
+    public static CancellationToken withTimeout(long timeout, TimeUnit unit) {
+        return new CancellationToken(System.nanoTime() + unit.toNanos(timeout));
+    }
+
+    public void cancel() {
+        mCancelled = true;
+    }
+
+    public boolean isCancelled() {
+        return mCancelled;
+    }
+
+    public boolean isExpired() {
+        return mHasDeadline && System.nanoTime() - mDeadline >= 0;
+    }
+
+    /**
+     * @return why the build should stop, null if it can go on
+     */
+    BuildStatus check() {
+        if (mCancelled || Thread.currentThread().isInterrupted())
+            return BuildStatus.Cancelled;
+        if (isExpired())
+            return BuildStatus.DeadlineExceeded;
+        return null;
+    }
+}
@@ -2,7 +2,6 @@ package wordSearchGenerator.generators;
 
 import java.util.Arrays;
 import java.util.List;
-import java.util.Random;
 
 /**
  * Returns a distinct element from a given array in random order
@@ -11,19 +10,34 @@ import java.util.Random;
 public class DistinctRandomGenerator<T> {
     private Object[] objects;
     private int maxIndex;
-    private Random r = new Random();
+    private RandomSource r;
 
     public DistinctRandomGenerator(Object[] o) {
+        this(o, new Xoshiro128PlusPlus());
+    }
+
+    public DistinctRandomGenerator(Object[] o, RandomSource random) {
         objects = Arrays.copyOfRange(o, 0, o.length);
         maxIndex = o.length - 1;
+        r = random;
     }
 
     public DistinctRandomGenerator(List<T> o) {
+        this(o, new Xoshiro128PlusPlus());
+    }
+
+    public DistinctRandomGenerator(List<T> o, RandomSource random) {
         objects = Arrays.copyOfRange(o.toArray(), 0, o.size());
         maxIndex = o.size() - 1;
+        r = random;
     }
 
     public DistinctRandomGenerator(int n) {
+        this(n, new Xoshiro128PlusPlus());
+    }
+
+    public DistinctRandomGenerator(int n, RandomSource random) {
+        r = random;
         objects = new Integer[n];
         for (int i = 0; i < n; i++)
             objects[i] = i;
@@ -0,0 +1,83 @@
+package wordSearchGenerator.generators;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * DistinctRandomGenerator for ints without boxing.
+ * Returns the values in random order until there are none left,
+ * reset() makes all of them available again without allocating
+ */
+public class DistinctRandomIntGenerator {
+    private final int[] original;
+    private final int[] values;
+    private int maxIndex;
+    private RandomSource r;
+
+    /**
+     * Generates 0 to n - 1
+     */
+    public DistinctRandomIntGenerator(int n, RandomSource random) {
+        this(range(n), random);
+    }
+
+    public DistinctRandomIntGenerator(int[] values, RandomSource random) {
+        this.original = Arrays.copyOf(values, values.length);
+        this.values = Arrays.copyOf(values, values.length);
+        this.maxIndex = values.length - 1;
+        this.r = random;
+    }
+
+    private static int[] range(int n) {
+        int[] values = new int[n];
+        for (int i = 0; i < n; i++)
+            values[i] = i;
+        return values;
+    }
+
+    public boolean hasNext() {
+        return maxIndex >= 0;
+    }
+
+    /**
+     * @throws NoSuchElementException if every value has been returned since the last reset
+     */
+    public int next() {
+        if (maxIndex < 0)
+            throw new NoSuchElementException();
+        int index = r.nextInt(maxIndex + 1);
+        int ret = values[index];
+        values[index] = values[maxIndex];
+        values[maxIndex] = ret;
+        maxIndex--;
+        return ret;
+    }
+
+    /**
+     * Draws up to k distinct values at once
+     *
+     * @return number of values written to dest
+     */
+    public int draw(int k, int[] dest) {
+        int n = Math.min(k, maxIndex + 1);
+        for (int i = 0; i < n; i++)
+            dest[i] = next();
+        return n;
+    }
+
+    /**
+     * Makes every value available again, in the original order so a seeded source repeats itself
+     */
+    public void reset() {
+        System.arraycopy(original, 0, values, 0, values.length);
+        maxIndex = values.length - 1;
+    }
+
+    public int remaining() {
+        return maxIndex + 1;
+    }
+
+    public void setRandom(RandomSource random) {
+        r = random;
+    }
+}
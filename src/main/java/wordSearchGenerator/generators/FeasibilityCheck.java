@@ -0,0 +1,265 @@
+package wordSearchGenerator.generators;
+
+import wordSearchGenerator.models.Feasibility;
+import wordSearchGenerator.models.FeasibilityReport;
+import wordSearchGenerator.models.FillType;
+import wordSearchGenerator.models.PuzzleSpec;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Classifies a spec from the words, the fill characters and the grid size before generating it.
+ * <p>
+ * screen() only looks at the words and the grid, which takes microseconds and is what a request path should call.
+ * It finds the specs that can never be built: a word longer than both sides, words inside one another,
+ * a fill that completes a word wherever it goes.
+ * <p>
+ * analyze() goes on to estimate how often a build starts over. The estimate is a heuristic, not a bound.
+ * Cells are filled in index order, so away from the inserted words the only lines left one letter short of a word
+ * when a cell is filled are the ones the cell comes last in, and those can only forbid the first or last letter of a word.
+ * If some fill character is neither, the open fill never fails. Otherwise the chance of a cell dying is measured
+ * by filling a small sample grid until a cell dies, the fill steers letters too much for a closed form.
+ * With hazard h per cell an attempt over the whole grid succeeds with probability e^-(h * cells)
+ * and the expected number of retries is e^(h * cells) - 1.
+ * Next to an inserted word a line can be one letter short at any of its letters, which an empty fill misses,
+ * so a few whole attempts on the sample grid set a floor on the estimate either way.
+ * Building the samples takes up to a few milliseconds, so it's for checking specs once, like BulkJob does,
+ * not for every request
+ */
+public class FeasibilityCheck {
+    /**
+     * Estimates above this are classed as risky
+     */
+    public static final double RISKY_RETRIES = 10;
+
+    /**
+     * Estimates above this are classed as infeasible, build() would spin for minutes
+     */
+    public static final double INFEASIBLE_RETRIES = 1e6;
+
+    /**
+     * Size of the sample grid and cells sampled in total, enough to tell the estimate within an order of magnitude
+     * in a couple of hundred microseconds
+     */
+    private static final int SAMPLE_SIDE = 32;
+    private static final int SAMPLE_CELLS = 1024;
+    private static final long SAMPLE_SEED = 0x5eed;
+
+    /**
+     * Whole attempts on the sample grid, when none completes the floor is just above RISKY_RETRIES
+     */
+    private static final int SAMPLE_ATTEMPTS = 8;
+
+    private FeasibilityCheck() {
+    }
+
+    public static FeasibilityReport analyze(PuzzleSpec spec) {
+        return analyze(spec.nRow, spec.nCol, spec.words, spec.fillType);
+    }
+
+    public static FeasibilityReport analyze(int nRow, int nCol, List<String> words, FillType fillType) {
+        List<String> risky = new ArrayList<String>();
+        FeasibilityReport screened = screen(nRow, nCol, words, fillType, risky);
+        if (screened != null)
+            return screened;
+
+        char[] fillChars = WordSearchGenerator.getFillChars(words, fillType);
+        double retries = expectedRetries(nRow, nCol, words, fillChars);
+        if (retries > INFEASIBLE_RETRIES)
+            return new FeasibilityReport(Feasibility.Infeasible, retries,
+                    Collections.singletonList("Expected to retry " + retries + " times before a fill succeeds"));
+        if (retries > RISKY_RETRIES) {
+            risky.add("Expected to retry " + Math.round(retries) + " times before a fill succeeds");
+            // A word that overlaps itself leaves lines one letter short of it next to every instance
+            for (String word : words) {
+                int border = border(word);
+                if (border > 0)
+                    risky.add(word + " overlaps itself by " + border + " letters");
+            }
+        }
+        return new FeasibilityReport(risky.isEmpty() ? Feasibility.Feasible : Feasibility.Risky, retries,
+                Collections.unmodifiableList(risky));
+    }
+
+    public static FeasibilityReport screen(PuzzleSpec spec) {
+        return screen(spec.nRow, spec.nCol, spec.words, spec.fillType);
+    }
+
+    /**
+     * Looks at the words and the grid only. Infeasible specs are the ones analyze() finds without sampling,
+     * the retry estimate is NaN since that takes sampling
+     */
+    public static FeasibilityReport screen(int nRow, int nCol, List<String> words, FillType fillType) {
+        List<String> risky = new ArrayList<String>();
+        FeasibilityReport screened = screen(nRow, nCol, words, fillType, risky);
+        if (screened != null)
+            return screened;
+        return new FeasibilityReport(risky.isEmpty() ? Feasibility.Feasible : Feasibility.Risky, Double.NaN,
+                Collections.unmodifiableList(risky));
+    }
+
+    /**
+     * @return the report for a spec that can never be built, null after adding the structural risks to risky
+     */
+    private static FeasibilityReport screen(int nRow, int nCol, List<String> words, FillType fillType, List<String> risky) {
+        List<String> infeasible = new ArrayList<String>();
+        if (nRow <= 0 || nCol <= 0)
+            return infeasible("Grid has no cells");
+        try {
+            WordSearchEngine.validateWords(words);
+        } catch (IllegalArgumentException e) {
+            return infeasible(e.getMessage());
+        }
+
+        long cells = (long) nRow * nCol;
+        long letters = 0;
+        for (String word : words) {
+            int length = word.length();
+            letters += length;
+            if (length > Math.max(nRow, nCol))
+                infeasible.add(word + " is longer than both sides of the grid");
+            else if (slots(nRow, nCol, length) <= 2)
+                risky.add(word + " fits in only one line of the grid");
+        }
+        if (letters > cells)
+            risky.add("The words have more letters than the grid has cells, they have to overlap");
+
+        char[] fillChars = WordSearchGenerator.getFillChars(words, fillType);
+        for (String word : words) {
+            if (alwaysCompletes(word, fillChars, nRow, nCol))
+                infeasible.add("Every fill character completes another " + word);
+        }
+        if (!infeasible.isEmpty())
+            return new FeasibilityReport(Feasibility.Infeasible, Double.POSITIVE_INFINITY,
+                    Collections.unmodifiableList(infeasible));
+        return null;
+    }
+
+    private static FeasibilityReport infeasible(String reason) {
+        return new FeasibilityReport(Feasibility.Infeasible, Double.POSITIVE_INFINITY, Collections.singletonList(reason));
+    }
+
+    /**
+     * @return number of (start, orientation) pairs a word of the length fits at, a line counted once per direction
+     */
+    static long slots(int nRow, int nCol, int length) {
+        long along = length <= nCol ? (long) nRow * (nCol - length + 1) : 0;
+        long down = length <= nRow ? (long) nCol * (nRow - length + 1) : 0;
+        long diagonal = length <= nRow && length <= nCol ? (long) (nRow - length + 1) * (nCol - length + 1) : 0;
+        if (length == 1)
+            return (long) nRow * nCol;
+        return 2 * (along + down + 2 * diagonal);
+    }
+
+    /**
+     * Two cases where no fill can work. A word of one repeated letter filled with only that letter
+     * spells it on every other line of its length. A two letter word filled with only its two letters
+     * leaves any cell next to both of them without a character, and every grid at least 2 cells across both ways has one.
+     * A single row or column gets by with the first letter up to the word and the last letter after it
+     */
+    private static boolean alwaysCompletes(String word, char[] fillChars, int nRow, int nCol) {
+        if (!allIn(word, fillChars))
+            return false;
+        if (fillChars.length == 1)
+            // Lines of the word's length across the 4 axes, a palindrome reads the same both ways
+            return slots(nRow, nCol, word.length()) / (word.length() == 1 ? 1 : 2) > 1;
+        return fillChars.length == 2 && word.length() == 2 && word.charAt(0) != word.charAt(1)
+                && Math.min(nRow, nCol) > 1;
+    }
+
+    static double expectedRetries(int nRow, int nCol, List<String> words, char[] fillChars) {
+        WordProfile profile = new WordProfile(words.toArray(new String[words.size()]));
+        if (!canDie(words, fillChars))
+            // The open fill never gets stuck, only the cells around the inserted words can,
+            // and there are as many of them in a large grid as in the sample
+            return sampledRetries(nRow, nCol, profile, fillChars);
+        int sampleRows = Math.min(nRow, SAMPLE_SIDE);
+        int sampleCols = Math.min(nCol, SAMPLE_SIDE);
+        WordSearchEngine sample = new WordSearchEngine(sampleRows, sampleCols, profile, fillChars);
+        sample.setRandom(new Xoshiro128PlusPlus(SAMPLE_SEED));
+        int sampleSize = sampleRows * sampleCols;
+        long filled = 0;
+        int dead = 0;
+        while (filled < SAMPLE_CELLS) {
+            int reached = sample.sampleFill();
+            filled += Math.min(reached + 1, sampleSize);
+            if (reached < sampleSize)
+                dead++;
+        }
+        // Half a dead cell keeps a rare but possible failure from being estimated as none
+        double hazard = (dead + 0.5) / filled;
+        return Math.max(Math.expm1(hazard * nRow * nCol), sampledRetries(nRow, nCol, profile, fillChars));
+    }
+
+    /**
+     * A grid at least as big as the sample is no easier to fill, so the retries of attempts on it are a floor
+     */
+    private static double sampledRetries(int nRow, int nCol, WordProfile profile, char[] fillChars) {
+        int sampleRows = Math.min(nRow, Math.max(SAMPLE_SIDE, profile.maxLength));
+        int sampleCols = Math.min(nCol, Math.max(SAMPLE_SIDE, profile.maxLength));
+        boolean wholeGrid = sampleRows == nRow && sampleCols == nCol;
+        WordSearchEngine sample = new WordSearchEngine(sampleRows, sampleCols, profile, fillChars);
+        sample.setRandom(new Xoshiro128PlusPlus(SAMPLE_SEED));
+        int attempts = 0;
+        int completed = 0;
+        for (int i = 0; i < 2 * SAMPLE_ATTEMPTS && attempts < SAMPLE_ATTEMPTS; i++) {
+            boolean inserted = sample.sampleInsert();
+            // Words crowding a sample smaller than the grid say nothing about the grid
+            if (!inserted && !wholeGrid)
+                continue;
+            attempts++;
+            if (inserted && sample.sampleFillAround())
+                completed++;
+        }
+        // The same half success as the hazard
+        return (attempts + 1) / (completed + 0.5) - 1;
+    }
+
+    /**
+     * @return false if some fill character is never forbidden by the lines a cell is filled last in.
+     * Only holds for the open fill, next to an inserted word a line can be one letter short at any of its letters
+     */
+    static boolean canDie(List<String> words, char[] fillChars) {
+        for (char c : fillChars) {
+            boolean forbidden = false;
+            for (String word : words) {
+                // A word with a letter the fill never uses can't be completed by the fill alone
+                if (!allIn(word, fillChars))
+                    continue;
+                forbidden |= word.charAt(0) == c || word.charAt(word.length() - 1) == c;
+            }
+            if (!forbidden)
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * @return length of the longest proper prefix of the word that is also a suffix
+     */
+    static int border(String word) {
+        int[] failure = new int[word.length()];
+        int k = 0;
+        for (int i = 1; i < word.length(); i++) {
+            while (k > 0 && word.charAt(i) != word.charAt(k))
+                k = failure[k - 1];
+            if (word.charAt(i) == word.charAt(k))
+                k++;
+            failure[i] = k;
+        }
+        return word.isEmpty() ? 0 : failure[word.length() - 1];
+    }
+
+    private static boolean allIn(String word, char[] chars) {
+        for (int i = 0; i < word.length(); i++) {
+            boolean found = false;
+            for (char c : chars)
+                found |= c == word.charAt(i);
+            if (!found)
+                return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,46 @@
+package wordSearchGenerator.generators;
+
+import wordSearchGenerator.models.GenerationStats;
+
+/**
+ * Mutable counterpart of GenerationStats the engine counts into while metrics are on
+ */
+class GenerationCounters {
+    long builds;
+    long retries;
+    long backtracks;
+    long insertNanos;
+    long fillNanos;
+    long insertAttempts;
+    long rejectedInserts;
+    long filledCells;
+    long rejectedCandidates;
+    long deadCells;
+    long propagations;
+    long gridClears;
+
+    void add(GenerationCounters other) {
+        builds += other.builds;
+        retries += other.retries;
+        backtracks += other.backtracks;
+        insertNanos += other.insertNanos;
+        fillNanos += other.fillNanos;
+        insertAttempts += other.insertAttempts;
+        rejectedInserts += other.rejectedInserts;
+        filledCells += other.filledCells;
+        rejectedCandidates += other.rejectedCandidates;
+        deadCells += other.deadCells;
+        propagations += other.propagations;
+        gridClears += other.gridClears;
+    }
+
+    void reset() {
+        builds = retries = backtracks = insertNanos = fillNanos = insertAttempts = rejectedInserts = 0;
+        filledCells = rejectedCandidates = deadCells = propagations = gridClears = 0;
+    }
+
+    GenerationStats snapshot() {
+        return new GenerationStats(builds, retries, backtracks, insertNanos, fillNanos, insertAttempts,
+                rejectedInserts, filledCells, rejectedCandidates, deadCells, propagations, gridClears);
+    }
+}
@@ -0,0 +1,13 @@
+package wordSearchGenerator.generators;
+
+import wordSearchGenerator.models.GenerationStats;
+
+/**
+ * Called on the building thread after every build, for example to export the numbers to monitoring
+ */
+public interface GenerationListener {
+    /**
+     * @param stats counters of this build only
+     */
+    void onBuild(GenerationStats stats);
+}
@@ -0,0 +1,263 @@
+package wordSearchGenerator.generators;
+
+import wordSearchGenerator.models.Placement;
+import wordSearchGenerator.models.Point;
+import wordSearchGenerator.models.Puzzle;
+import wordSearchGenerator.models.PuzzleSpec;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded cache of seeded puzzles in front of generation. A seeded spec always gives the same puzzle,
+ * so repeated requests for it are served from memory instead of building again.
+ * Entries are evicted least recently used first once there are too many or they take up too many bytes.
+ * Concurrent requests for a spec that isn't cached wait for one build instead of all building it.
+ * Specs without a seed are random every time and are never cached
+ */
+public class PuzzleCache {
+    /**
+     * Rough per-entry and per-placement object overhead, only used to weigh entries against each other
+     */
+    private static final int ENTRY_OVERHEAD = 96;
+    private static final int PLACEMENT_OVERHEAD = 96;
+
+    private final int mMaxEntries;
+    private final long mMaxBytes;
+    private final LinkedHashMap<PuzzleSpec, Entry> mEntries = new LinkedHashMap<PuzzleSpec, Entry>(16, 0.75f, true);
+    private long mBytes = 0;
+    private final ConcurrentMap<PuzzleSpec, FutureTask<Entry>> mInFlight = new ConcurrentHashMap<PuzzleSpec, FutureTask<Entry>>();
+
+    private final AtomicLong mHits = new AtomicLong();
+    private final AtomicLong mMisses = new AtomicLong();
+    private final AtomicLong mBuilds = new AtomicLong();
+    private final AtomicLong mEvictions = new AtomicLong();
+
+    /**
+     * @param maxEntries most puzzles kept at once
+     * @param maxBytes   most estimated bytes kept at once, a puzzle bigger than this on its own isn't cached
+     */
+    public PuzzleCache(int maxEntries, long maxBytes) {
+        if (maxEntries <= 0 || maxBytes <= 0)
+            throw new IllegalArgumentException("Cache bounds must be positive");
+        mMaxEntries = maxEntries;
+        mMaxBytes = maxBytes;
+    }
+
+    /**
+     * @return the puzzle for the spec, every call gets its own copy of the grid
+     */
+    public Puzzle get(final PuzzleSpec spec) {
+        if (spec.seed == null) {
+            mMisses.incrementAndGet();
+            // Never cached, so there's no entry to pack and unpack again
+            return generate(spec);
+        }
+        Entry entry;
+        synchronized (mEntries) {
+            entry = mEntries.get(spec);
+        }
+        if (entry != null) {
+            mHits.incrementAndGet();
+            return entry.toPuzzle();
+        }
+        mMisses.incrementAndGet();
+
+        FutureTask<Entry> task = new FutureTask<Entry>(new Callable<Entry>() {
+            public Entry call() {
+                Puzzle puzzle = generate(spec);
+                return new Entry(puzzle.grid, puzzle.placements);
+            }
+        });
+        FutureTask<Entry> running = mInFlight.putIfAbsent(spec, task);
+        if (running == null) {
+            try {
+                // A build that finished between the lookup and claiming the spec already cached it
+                synchronized (mEntries) {
+                    entry = mEntries.get(spec);
+                }
+                if (entry == null) {
+                    task.run();
+                    entry = await(task);
+                    put(spec, entry);
+                }
+            } finally {
+                // Only after the entry is in the cache, so a request in between can't start a second build
+                mInFlight.remove(spec, task);
+            }
+        } else {
+            entry = await(running);
+        }
+        return entry.toPuzzle();
+    }
+
+    public boolean contains(PuzzleSpec spec) {
+        synchronized (mEntries) {
+            return mEntries.containsKey(spec);
+        }
+    }
+
+    public void clear() {
+        synchronized (mEntries) {
+            mEntries.clear();
+            mBytes = 0;
+        }
+    }
+
+    public int size() {
+        synchronized (mEntries) {
+            return mEntries.size();
+        }
+    }
+
+    /**
+     * @return estimated bytes held by the cached puzzles
+     */
+    public long getBytes() {
+        synchronized (mEntries) {
+            return mBytes;
+        }
+    }
+
+    public long getHits() {
+        return mHits.get();
+    }
+
+    public long getMisses() {
+        return mMisses.get();
+    }
+
+    /**
+     * @return number of puzzles built, less than the misses when concurrent requests shared a build
+     */
+    public long getBuilds() {
+        return mBuilds.get();
+    }
+
+    public long getEvictions() {
+        return mEvictions.get();
+    }
+
+    public double getHitRate() {
+        long hits = mHits.get();
+        long total = hits + mMisses.get();
+        return total == 0 ? 0 : (double) hits / total;
+    }
+
+    private Puzzle generate(PuzzleSpec spec) {
+        mBuilds.incrementAndGet();
+        WordSearchGenerator generator = new WordSearchGenerator(spec.nRow, spec.nCol, spec.words, spec.fillType);
+        if (spec.seed != null)
+            generator.setSeed(spec.seed);
+        return new Puzzle(generator.build(), generator.getPlacements());
+    }
+
+    private void put(PuzzleSpec spec, Entry entry) {
+        if (entry.bytes > mMaxBytes)
+            return;
+        synchronized (mEntries) {
+            Entry old = mEntries.put(spec, entry);
+            if (old != null)
+                mBytes -= old.bytes;
+            mBytes += entry.bytes;
+            Iterator<Map.Entry<PuzzleSpec, Entry>> eldest = mEntries.entrySet().iterator();
+            while (mEntries.size() > mMaxEntries || mBytes > mMaxBytes) {
+                Map.Entry<PuzzleSpec, Entry> e = eldest.next();
+                mBytes -= e.getValue().bytes;
+                eldest.remove();
+                mEvictions.incrementAndGet();
+            }
+        }
+    }
+
+    private static Entry await(FutureTask<Entry> task) {
+        try {
+            return task.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted waiting for a puzzle", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException)
+                throw (RuntimeException) cause;
+            if (cause instanceof Error)
+                throw (Error) cause;
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    /**
+     * A grid stored as one byte per cell when every letter fits in ISO-8859-1, two otherwise
+     */
+    private static class Entry {
+        private final int nRow;
+        private final int nCol;
+        private final byte[] mNarrow;
+        private final char[] mWide;
+        /**
+         * Point is mutable, placements are kept as words, starts and orientations and made again for every copy
+         */
+        private final String[] mWords;
+        private final int[] mPlacements;
+        final long bytes;
+
+        Entry(char[][] grid, List<Placement> placements) {
+            nRow = grid.length;
+            nCol = nRow == 0 ? 0 : grid[0].length;
+            boolean narrow = true;
+            for (char[] row : grid)
+                for (char c : row)
+                    narrow &= c <= 0xff;
+            byte[] bytes = narrow ? new byte[nRow * nCol] : null;
+            char[] chars = narrow ? null : new char[nRow * nCol];
+            for (int x = 0; x < nRow; x++) {
+                for (int y = 0; y < nCol; y++) {
+                    if (narrow)
+                        bytes[x * nCol + y] = (byte) grid[x][y];
+                    else
+                        chars[x * nCol + y] = grid[x][y];
+                }
+            }
+            mNarrow = bytes;
+            mWide = chars;
+            mWords = new String[placements.size()];
+            mPlacements = new int[3 * placements.size()];
+            for (int i = 0; i < mWords.length; i++) {
+                Placement p = placements.get(i);
+                mWords[i] = p.word;
+                mPlacements[3 * i] = p.start.x;
+                mPlacements[3 * i + 1] = p.start.y;
+                mPlacements[3 * i + 2] = p.orientation;
+            }
+            long size = ENTRY_OVERHEAD + (narrow ? nRow * nCol : 2L * nRow * nCol);
+            for (Placement p : placements)
+                size += PLACEMENT_OVERHEAD + 2L * p.word.length();
+            this.bytes = size;
+        }
+
+        Puzzle toPuzzle() {
+            char[][] grid = new char[nRow][nCol];
+            for (int x = 0; x < nRow; x++) {
+                for (int y = 0; y < nCol; y++)
+                    grid[x][y] = mNarrow != null ? (char) (mNarrow[x * nCol + y] & 0xff) : mWide[x * nCol + y];
+            }
+            List<Placement> placements = new ArrayList<Placement>(mWords.length);
+            for (int i = 0; i < mWords.length; i++) {
+                Point start = new Point(mPlacements[3 * i], mPlacements[3 * i + 1]);
+                int orientation = mPlacements[3 * i + 2];
+                Point end = WordSearchGenerator.getRelativePoint(orientation, start, mWords[i].length() - 1);
+                placements.add(new Placement(mWords[i], start, end, orientation));
+            }
+            return new Puzzle(grid, placements);
+        }
+    }
+}
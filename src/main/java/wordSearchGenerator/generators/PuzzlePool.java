@@ -0,0 +1,240 @@
+package wordSearchGenerator.generators;
+
+import wordSearchGenerator.models.BuildStatus;
+import wordSearchGenerator.models.Feasibility;
+import wordSearchGenerator.models.FeasibilityReport;
+import wordSearchGenerator.models.Puzzle;
+import wordSearchGenerator.models.PuzzleSpec;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps puzzles ready for a fixed set of specs so a request never waits on a build.
+ * Each spec has a bounded queue of puzzles that a fixed number of background threads top up
+ * whenever a puzzle is taken from it. At most one refill per spec is queued or running,
+ * so the work waiting on the executor is bounded by the number of specs however many requests come in.
+ * An empty queue is reported to the caller instead of blocking it.
+ * Every background build has a deadline, a refill that misses it or fails is counted and tried again on the next poll
+ */
+public class PuzzlePool {
+    /**
+     * Deadline of each background build unless the constructor is given one
+     */
+    public static final long DEFAULT_REFILL_TIMEOUT_MILLIS = 10000;
+
+    private final Map<PuzzleSpec, SpecPool> mPools = new HashMap<PuzzleSpec, SpecPool>();
+    private final ExecutorService mExecutor;
+    private final int mCapacity;
+    private final long mRefillTimeoutMillis;
+
+    private final AtomicLong mHandedOut = new AtomicLong();
+    private final AtomicLong mEmpty = new AtomicLong();
+    private final AtomicLong mGenerated = new AtomicLong();
+    private final AtomicLong mBuiltOnRequest = new AtomicLong();
+    private final AtomicLong mTimedOutRefills = new AtomicLong();
+    private final AtomicLong mFailedRefills = new AtomicLong();
+
+    /**
+     * @param specs    specs to keep puzzles for, seeds are ignored since every puzzle in a pool should differ
+     * @param capacity puzzles kept ready per spec
+     * @param threads  background threads building puzzles
+     * @throws IllegalArgumentException if a spec is infeasible, its refills would hold a thread forever
+     */
+    public PuzzlePool(List<PuzzleSpec> specs, int capacity, int threads) {
+        this(specs, capacity, threads, DEFAULT_REFILL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * @param refillTimeout deadline of each background build
+     * @throws IllegalArgumentException if a spec is infeasible, its refills would hold a thread forever
+     */
+    public PuzzlePool(List<PuzzleSpec> specs, int capacity, int threads, long refillTimeout, TimeUnit unit) {
+        if (capacity <= 0 || threads <= 0 || refillTimeout <= 0)
+            throw new IllegalArgumentException("Capacity, threads and refill timeout must be positive");
+        mCapacity = capacity;
+        mRefillTimeoutMillis = unit.toMillis(refillTimeout);
+        for (PuzzleSpec spec : specs) {
+            FeasibilityReport feasibility = FeasibilityCheck.screen(spec);
+            if (feasibility.feasibility == Feasibility.Infeasible)
+                throw new IllegalArgumentException("Infeasible spec " + feasibility.reasons);
+            mPools.put(spec.withoutSeed(), new SpecPool(spec.withoutSeed(), capacity));
+        }
+
+        final AtomicInteger count = new AtomicInteger();
+        mExecutor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<Runnable>(Math.max(1, mPools.size())), new ThreadFactory() {
+            public Thread newThread(Runnable r) {
+                Thread t = new Thread(r, "puzzle-pool-" + count.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            }
+        });
+        for (SpecPool pool : mPools.values())
+            pool.scheduleRefill();
+    }
+
+    /**
+     * @return a ready puzzle, null if the spec's pool is empty right now
+     * @throws IllegalArgumentException if the spec isn't pooled
+     */
+    public Puzzle poll(PuzzleSpec spec) {
+        SpecPool pool = pool(spec);
+        Puzzle puzzle = pool.mReady.poll();
+        if (puzzle == null) {
+            mEmpty.incrementAndGet();
+        } else {
+            mHandedOut.incrementAndGet();
+        }
+        pool.scheduleRefill();
+        return puzzle;
+    }
+
+    /**
+     * Same as poll but builds the puzzle on the calling thread when the pool is empty
+     */
+    public Puzzle get(PuzzleSpec spec) {
+        Puzzle puzzle = poll(spec);
+        if (puzzle != null)
+            return puzzle;
+        mBuiltOnRequest.incrementAndGet();
+        PuzzleSpec key = spec.withoutSeed();
+        WordSearchGenerator generator = new WordSearchGenerator(key.nRow, key.nCol, key.words, key.fillType);
+        return new Puzzle(generator.build(), generator.getPlacements());
+    }
+
+    /**
+     * @return puzzles ready for the spec
+     */
+    public int getLevel(PuzzleSpec spec) {
+        return pool(spec).mReady.size();
+    }
+
+    public int getCapacity() {
+        return mCapacity;
+    }
+
+    public List<PuzzleSpec> getSpecs() {
+        return new ArrayList<PuzzleSpec>(mPools.keySet());
+    }
+
+    public long getHandedOut() {
+        return mHandedOut.get();
+    }
+
+    /**
+     * @return number of polls that found their pool empty
+     */
+    public long getEmptyPolls() {
+        return mEmpty.get();
+    }
+
+    /**
+     * @return number of puzzles built in the background
+     */
+    public long getGenerated() {
+        return mGenerated.get();
+    }
+
+    /**
+     * @return number of puzzles get() had to build on the calling thread
+     */
+    public long getBuiltOnRequest() {
+        return mBuiltOnRequest.get();
+    }
+
+    /**
+     * @return number of background builds that missed the refill deadline
+     */
+    public long getTimedOutRefills() {
+        return mTimedOutRefills.get();
+    }
+
+    /**
+     * @return number of background builds that threw
+     */
+    public long getFailedRefills() {
+        return mFailedRefills.get();
+    }
+
+    public void shutdown() {
+        mExecutor.shutdownNow();
+    }
+
+    private SpecPool pool(PuzzleSpec spec) {
+        SpecPool pool = mPools.get(spec.withoutSeed());
+        if (pool == null)
+            throw new IllegalArgumentException("Spec isn't pooled");
+        return pool;
+    }
+
+    /**
+     * Ready puzzles of one spec. Only the one refill allowed at a time uses the engine
+     */
+    private class SpecPool implements Runnable {
+        private final PuzzleSpec mSpec;
+        private final ArrayBlockingQueue<Puzzle> mReady;
+        private final AtomicBoolean mScheduled = new AtomicBoolean();
+        private final WordSearchEngine mEngine;
+
+        SpecPool(PuzzleSpec spec, int capacity) {
+            mSpec = spec;
+            mReady = new ArrayBlockingQueue<Puzzle>(capacity);
+            mEngine = new WordSearchEngine(spec.nRow, spec.nCol, spec.words.toArray(new String[spec.words.size()]),
+                    WordSearchGenerator.getFillChars(spec.words, spec.fillType));
+        }
+
+        void scheduleRefill() {
+            if (mExecutor.isShutdown() || !mScheduled.compareAndSet(false, true))
+                return;
+            try {
+                mExecutor.execute(this);
+            } catch (RejectedExecutionException e) {
+                // Shut down in between, the queue itself always has room for one refill per spec
+                mScheduled.set(false);
+            }
+        }
+
+        public void run() {
+            try {
+                while (mReady.remainingCapacity() > 0 && !Thread.currentThread().isInterrupted()) {
+                    BuildStatus status;
+                    try {
+                        status = mEngine.build(CancellationToken.withTimeout(mRefillTimeoutMillis, TimeUnit.MILLISECONDS));
+                    } catch (RuntimeException e) {
+                        mFailedRefills.incrementAndGet();
+                        return;
+                    }
+                    // Cancelled is the shutdown interrupting the thread
+                    if (status != BuildStatus.Completed) {
+                        if (status == BuildStatus.DeadlineExceeded)
+                            mTimedOutRefills.incrementAndGet();
+                        return;
+                    }
+                    char[][] grid = new char[mSpec.nRow][mSpec.nCol];
+                    mEngine.copyInto(grid);
+                    if (!mReady.offer(new Puzzle(grid, mEngine.getPlacements())))
+                        break;
+                    mGenerated.incrementAndGet();
+                }
+            } finally {
+                mScheduled.set(false);
+            }
+            // A poll that came in after the last check but before the flag cleared didn't schedule anything
+            if (mReady.remainingCapacity() > 0)
+                scheduleRefill();
+        }
+    }
+}
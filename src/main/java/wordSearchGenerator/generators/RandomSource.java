@@ -0,0 +1,17 @@
+package wordSearchGenerator.generators;
+
+/**
+ * Source of randomness for generation. An instance is only used by one generator at a time,
+ * so implementations don't need to be thread safe
+ */
+public interface RandomSource {
+    /**
+     * @return uniformly distributed value in [0, bound)
+     */
+    int nextInt(int bound);
+
+    /**
+     * @return an independent source for another worker, seeded from this one
+     */
+    RandomSource split();
+}
@@ -0,0 +1,471 @@
+package wordSearchGenerator.generators;
+
+import wordSearchGenerator.models.Feasibility;
+import wordSearchGenerator.models.FeasibilityReport;
+import wordSearchGenerator.models.FillType;
+import wordSearchGenerator.models.Placement;
+import wordSearchGenerator.models.Point;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static wordSearchGenerator.generators.WordSearchEngine.EMPTY;
+import static wordSearchGenerator.generators.WordSearchEngine.MAX_INSERT_ATTEMPTS;
+import static wordSearchGenerator.generators.WordSearchEngine.X_DELTA;
+import static wordSearchGenerator.generators.WordSearchEngine.Y_DELTA;
+import static wordSearchGenerator.generators.WordSearchEngine.nAxes;
+
+/**
+ * Generates word searches too large to hold in memory and writes them out one row at a time.
+ * Rows are indexed by x like the rows of WordSearchGenerator's char matrix and filled in order.
+ * <p>
+ * Backtracking can clear letters up to L - 1 rows behind the row being filled (L is the longest word)
+ * and filling those again reads another L - 1 rows back. A line through the row being filled also reaches
+ * L - 1 rows ahead, which hold just the letters of the inserted words, so only 3 * (L - 1) + 1 rows are kept.
+ * A row is written as soon as it falls more than L - 1 rows behind, nothing can change it after that.
+ * The inserted words are kept separately as a sorted list of cells and loaded as their rows come into the window.
+ * <p>
+ * Words are inserted and letters picked by the same rules as WordSearchEngine, WordLines checks the lines for both.
+ * Until the first row is written a stuck fill starts over like a build does, after that it can't take the rows back
+ * and throws a PartialOutputException instead
+ */
+public class StreamingWordSearchGenerator {
+    /**
+     * Times the words are inserted and the fill started over before giving up, all before anything is written
+     */
+    static final int MAX_STARTS = 16;
+
+    private final int nRow;
+    private final int nCol;
+    private final String[] mWordStrings;
+    private final char[][] mWords;
+    private final boolean[] mPalindrome;
+    private final int mMaxLength;
+    private final char[] mFillChars;
+    private final long mAllFillBits;
+    private final int[] mInsertOrder;
+    private final int[][] mSlots;
+    private final int[] mSlotTotal;
+    private final WordLines mLines;
+    private RandomSource mRandom = new Xoshiro128PlusPlus();
+
+    // Placements
+    private final int[] mStartX;
+    private final int[] mStartY;
+    private final int[] mOrientation;
+    private final boolean[] mPlaced;
+    private final int[] mWritten;
+    private long[] mFixedCells;
+    private char[] mFixedLetters;
+
+    // Row window
+    private final int nWindow;
+    private char[][] mRows;
+    private boolean[][] mFixedInRow;
+    private int mCurrentRow;
+    private int mRowsWritten;
+    private int[] mPendingX;
+    private int[] mPendingY;
+
+    /**
+     * The inserted words only, while inserting
+     */
+    private final WordLines.Grid mPlacedView = new WordLines.Grid() {
+        public char letterAt(int x, int y) {
+            return placedLetter(x, y);
+        }
+
+        public boolean isPlacement(int w, int axis, int sx, int sy) {
+            return StreamingWordSearchGenerator.this.isPlacement(w, axis, sx, sy);
+        }
+    };
+
+    /**
+     * The row window and the inserted words after it, while filling
+     */
+    private final WordLines.Grid mWindowView = new WordLines.Grid() {
+        public char letterAt(int x, int y) {
+            return getLetter(x, y);
+        }
+
+        public boolean isPlacement(int w, int axis, int sx, int sy) {
+            return StreamingWordSearchGenerator.this.isPlacement(w, axis, sx, sy);
+        }
+    };
+
+    public StreamingWordSearchGenerator(int nRow, int nCol, String word, FillType type) {
+        this(nRow, nCol, Collections.singletonList(word), type);
+    }
+
+    /**
+     * @throws IllegalArgumentException if FeasibilityCheck finds the words can never be put in the grid
+     */
+    public StreamingWordSearchGenerator(int nRow, int nCol, List<String> words, FillType type) {
+        FeasibilityReport report = FeasibilityCheck.screen(nRow, nCol, words, type);
+        if (report.feasibility == Feasibility.Infeasible)
+            throw new IllegalArgumentException("Infeasible: " + report.reasons);
+        String[] wordArray = words.toArray(new String[words.size()]);
+        WordProfile profile = new WordProfile(wordArray);
+        this.nRow = nRow;
+        this.nCol = nCol;
+        this.mWordStrings = profile.words;
+        this.mWords = profile.letters;
+        this.mPalindrome = profile.palindrome;
+        this.mMaxLength = profile.maxLength;
+        this.mInsertOrder = profile.insertOrder;
+        this.mFillChars = WordSearchGenerator.getFillChars(words, type);
+        if (mFillChars.length > Long.SIZE)
+            throw new IllegalArgumentException("More than " + Long.SIZE + " fill characters");
+        this.mAllFillBits = mFillChars.length == Long.SIZE ? -1L : (1L << mFillChars.length) - 1;
+
+        int n = wordArray.length;
+        long[][] wordBits = new long[n][];
+        this.mSlots = new int[n][X_DELTA.length];
+        this.mSlotTotal = new int[n];
+        for (int w = 0; w < n; w++) {
+            int length = mWords[w].length;
+            wordBits[w] = WordLines.wordBits(mWords[w], mFillChars, null);
+            for (int o = 0; o < X_DELTA.length; o++) {
+                mSlots[w][o] = WordSearchEngine.rowsFitting(nRow, X_DELTA[o], length)
+                        * WordSearchEngine.rowsFitting(nCol, Y_DELTA[o], length);
+                mSlotTotal[w] += mSlots[w][o];
+            }
+        }
+        this.mLines = new WordLines(nRow, nCol);
+        mLines.setWords(mWords, mPalindrome, wordBits);
+
+        this.mStartX = new int[n];
+        this.mStartY = new int[n];
+        this.mOrientation = new int[n];
+        this.mPlaced = new boolean[n];
+        this.mWritten = new int[mMaxLength];
+        this.nWindow = Math.min(nRow, 3 * (mMaxLength - 1) + 1);
+    }
+
+    public void setSeed(long seed) {
+        mRandom = new Xoshiro128PlusPlus(seed);
+    }
+
+    public void setRandom(RandomSource random) {
+        mRandom = random;
+    }
+
+    /**
+     * Writes the grid one line per row
+     *
+     * @return where each word was inserted
+     * @throws IllegalStateException if MAX_STARTS attempts got stuck before writing anything, out is untouched
+     * @throws PartialOutputException if a cell is left without a valid letter after rows were written to out
+     */
+    public List<Placement> generate(final Writer out) throws IOException {
+        return generate(new RowSink() {
+            public void write(char[] row) throws IOException {
+                out.write(row);
+                out.write('\n');
+            }
+        });
+    }
+
+    /**
+     * Writes the grid one line per row, one byte per letter (ISO-8859-1)
+     *
+     * @return where each word was inserted
+     * @throws IllegalStateException if MAX_STARTS attempts got stuck before writing anything, out is untouched
+     * @throws PartialOutputException if a cell is left without a valid letter after rows were written to out
+     */
+    public List<Placement> generate(final WritableByteChannel out) throws IOException {
+        final ByteBuffer buffer = ByteBuffer.allocate(nCol + 1);
+        return generate(new RowSink() {
+            public void write(char[] row) throws IOException {
+                buffer.clear();
+                for (char c : row)
+                    buffer.put((byte) c);
+                buffer.put((byte) '\n');
+                buffer.flip();
+                while (buffer.hasRemaining())
+                    out.write(buffer);
+            }
+        });
+    }
+
+    /**
+     * The fill got stuck after rows went out. Whatever they were written to holds the first rowsWritten rows
+     * of a puzzle that was never finished, which the caller has to throw away
+     */
+    public static class PartialOutputException extends IllegalStateException {
+        private static final long serialVersionUID = 1L;
+
+        public final int rowsWritten;
+
+        PartialOutputException(int rowsWritten, int row) {
+            super("No valid letter in row " + row + " after " + rowsWritten + " rows were written");
+            this.rowsWritten = rowsWritten;
+        }
+    }
+
+    private interface RowSink {
+        void write(char[] row) throws IOException;
+    }
+
+    private List<Placement> generate(RowSink sink) throws IOException {
+        mRows = new char[nWindow][nCol];
+        mFixedInRow = new boolean[nWindow][nCol];
+        mPendingX = new int[nWindow * nCol];
+        mPendingY = new int[nWindow * nCol];
+        for (int start = 0; start < MAX_STARTS; start++) {
+            if (insertWords() && stream(sink))
+                return getPlacements();
+        }
+        throw new IllegalStateException("Couldn't generate the word search in " + MAX_STARTS + " attempts");
+    }
+
+    /**
+     * @return false if the fill got stuck before any row was written
+     */
+    private boolean stream(RowSink sink) throws IOException {
+        mRowsWritten = 0;
+        int nextFixed = 0;
+        for (int x = 0; x < Math.min(nRow, mMaxLength - 1); x++)
+            nextFixed = loadRow(x, nextFixed);
+        for (mCurrentRow = 0; mCurrentRow < nRow; mCurrentRow++) {
+            // Takes the place of the row 2 * (L - 1) + 1 behind, which went out already
+            if (mCurrentRow + mMaxLength - 1 < nRow)
+                nextFixed = loadRow(mCurrentRow + mMaxLength - 1, nextFixed);
+
+            if (!fillRow(mCurrentRow)) {
+                if (mRowsWritten == 0)
+                    return false;
+                throw new PartialOutputException(mRowsWritten, mCurrentRow);
+            }
+
+            int finalRow = mCurrentRow - (mMaxLength - 1);
+            if (finalRow >= 0) {
+                sink.write(mRows[finalRow % nWindow]);
+                mRowsWritten++;
+            }
+        }
+        for (int x = Math.max(0, nRow - (mMaxLength - 1)); x < nRow; x++)
+            sink.write(mRows[x % nWindow]);
+        return true;
+    }
+
+    /**
+     * Empties row x in the window but for the inserted letters, which start at mFixedCells[nextFixed]
+     *
+     * @return index of the first inserted letter after the row
+     */
+    private int loadRow(int x, int nextFixed) {
+        char[] row = mRows[x % nWindow];
+        boolean[] fixed = mFixedInRow[x % nWindow];
+        Arrays.fill(row, EMPTY);
+        Arrays.fill(fixed, false);
+        long rowEnd = (long) (x + 1) * nCol;
+        for (; nextFixed < mFixedCells.length && mFixedCells[nextFixed] < rowEnd; nextFixed++) {
+            int y = (int) (mFixedCells[nextFixed] % nCol);
+            row[y] = mFixedLetters[nextFixed];
+            fixed[y] = true;
+        }
+        return nextFixed;
+    }
+
+    public List<Placement> getPlacements() {
+        List<Placement> placements = new ArrayList<Placement>();
+        for (int w = 0; w < mWords.length; w++) {
+            int last = mWords[w].length - 1;
+            int o = mOrientation[w];
+            Point start = new Point(mStartX[w], mStartY[w]);
+            Point end = new Point(start.x + last * X_DELTA[o], start.y + last * Y_DELTA[o]);
+            placements.add(new Placement(mWordStrings[w], start, end, o));
+        }
+        return placements;
+    }
+
+// -------- INSERTING THE WORDS -------------//
+
+    /**
+     * @return false if a word couldn't be inserted and the words have to be inserted again
+     */
+    private boolean insertWords() {
+        Arrays.fill(mPlaced, false);
+        for (int w : mInsertOrder) {
+            if (!insertWord(w))
+                return false;
+        }
+
+        int cells = 0;
+        for (char[] word : mWords)
+            cells += word.length;
+        long[] keys = new long[cells];
+        cells = 0;
+        for (int w = 0; w < mWords.length; w++) {
+            int o = mOrientation[w];
+            for (int i = 0; i < mWords[w].length; i++)
+                keys[cells++] = key(mStartX[w] + i * X_DELTA[o], mStartY[w] + i * Y_DELTA[o]);
+        }
+        Arrays.sort(keys);
+        int distinct = 0;
+        for (int i = 0; i < keys.length; i++)
+            if (i == 0 || keys[i] != keys[i - 1])
+                keys[distinct++] = keys[i];
+        mFixedCells = Arrays.copyOf(keys, distinct);
+        mFixedLetters = new char[distinct];
+        for (int i = 0; i < distinct; i++)
+            mFixedLetters[i] = placedLetter((int) (mFixedCells[i] / nCol), (int) (mFixedCells[i] % nCol));
+        return true;
+    }
+
+    /**
+     * Draws slots uniformly from the ones inside the grid like WordSearchEngine.insertWord
+     */
+    private boolean insertWord(int w) {
+        if (mSlotTotal[w] == 0)
+            return false;
+        int last = mWords[w].length - 1;
+        for (int attempt = 0; attempt < MAX_INSERT_ATTEMPTS; attempt++) {
+            int slot = mRandom.nextInt(mSlotTotal[w]);
+            int o = 0;
+            while (slot >= mSlots[w][o])
+                slot -= mSlots[w][o++];
+            int cols = WordSearchEngine.rowsFitting(nCol, Y_DELTA[o], mWords[w].length);
+            int x = slot / cols + (X_DELTA[o] < 0 ? last : 0);
+            int y = slot % cols + (Y_DELTA[o] < 0 ? last : 0);
+            if (tryInsert(w, x, y, o))
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * Places the word if it fits over the words already placed and doesn't complete
+     * a second instance of any word with them, otherwise leaves it unplaced
+     */
+    private boolean tryInsert(int w, int x, int y, int o) {
+        char[] word = mWords[w];
+        int nWritten = 0;
+        for (int i = 0; i < word.length; i++) {
+            char c = placedLetter(x + i * X_DELTA[o], y + i * Y_DELTA[o]);
+            if (c == EMPTY)
+                mWritten[nWritten++] = i;
+            else if (c != word[i])
+                return false;
+        }
+        mStartX[w] = x;
+        mStartY[w] = y;
+        mOrientation[w] = o;
+        mPlaced[w] = true;
+        for (int j = 0; j < nWritten; j++) {
+            int i = mWritten[j];
+            if (mLines.completesExtraInstance(mPlacedView, x + i * X_DELTA[o], y + i * Y_DELTA[o])) {
+                mPlaced[w] = false;
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return the letter a placed word puts at (x, y), EMPTY if none does
+     */
+    private char placedLetter(int x, int y) {
+        for (int w = 0; w < mWords.length; w++) {
+            if (!mPlaced[w]) continue;
+            int dx = X_DELTA[mOrientation[w]];
+            int dy = Y_DELTA[mOrientation[w]];
+            int i = dx != 0 ? (x - mStartX[w]) * dx : (y - mStartY[w]) * dy;
+            if (i >= 0 && i < mWords[w].length && mStartX[w] + i * dx == x && mStartY[w] + i * dy == y)
+                return mWords[w][i];
+        }
+        return EMPTY;
+    }
+
+    private boolean isPlacement(int w, int axis, int sx, int sy) {
+        if (!mPlaced[w])
+            return false;
+        int o = mOrientation[w];
+        int last = mWords[w].length - 1;
+        if (last == 0)
+            return mStartX[w] == sx && mStartY[w] == sy;
+        if (o < nAxes)
+            return o == axis && mStartX[w] == sx && mStartY[w] == sy;
+        return o - nAxes == axis && mStartX[w] + last * X_DELTA[o] == sx && mStartY[w] + last * Y_DELTA[o] == sy;
+    }
+
+    private long key(int x, int y) {
+        return (long) x * nCol + y;
+    }
+
+// -------------- LETTER INSERTION -------------------------------//
+
+    /**
+     * @return false if a cell of the row was left without a valid letter
+     */
+    private boolean fillRow(int x) {
+        // Backtracks allowed in one row, the rows already written can't be started over
+        int budget = 16 * nCol;
+        int oldestClearable = Math.max(0, x - (mMaxLength - 1));
+        for (int y = 0; y < nCol; y++) {
+            if (getLetter(x, y) != EMPTY || fillCell(x, y)) continue;
+
+            int top = 0;
+            mPendingX[top] = x;
+            mPendingY[top++] = y;
+            while (top > 0) {
+                top--;
+                int px = mPendingX[top], py = mPendingY[top];
+                if (fillCell(px, py)) continue;
+                int cleared = clearNeighbourhood(px, py, oldestClearable, top);
+                if (cleared == top || budget-- == 0)
+                    return false;
+                top = cleared;
+                mPendingX[top] = px;
+                mPendingY[top++] = py;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Sets a random fill character that completes no word with the letters around it, like WordSearchEngine.fillCell
+     */
+    private boolean fillCell(int x, int y) {
+        long allowed = mAllFillBits & ~mLines.forbiddenAt(mWindowView, x, y);
+        if (allowed == 0) return false;
+        for (int skip = mRandom.nextInt(Long.bitCount(allowed)); skip > 0; skip--)
+            allowed &= allowed - 1;
+        mRows[x % nWindow][y] = mFillChars[Long.numberOfTrailingZeros(allowed)];
+        return true;
+    }
+
+    private int clearNeighbourhood(int x, int y, int oldestClearable, int top) {
+        for (int o = 0; o < X_DELTA.length; o++) {
+            for (int d = 1; d < mMaxLength; d++) {
+                int nx = x + d * X_DELTA[o];
+                int ny = y + d * Y_DELTA[o];
+                if (nx < oldestClearable || nx > mCurrentRow || !inBounds(nx, ny)) break;
+                char[] row = mRows[nx % nWindow];
+                if (row[ny] == EMPTY || mFixedInRow[nx % nWindow][ny]) continue;
+                row[ny] = EMPTY;
+                mPendingX[top] = nx;
+                mPendingY[top++] = ny;
+            }
+        }
+        return top;
+    }
+
+    /**
+     * Letters of rows after the current one are only known where a word was inserted
+     */
+    private char getLetter(int x, int y) {
+        return mRows[x % nWindow][y];
+    }
+
+    private boolean inBounds(int x, int y) {
+        return x >= 0 && x < nRow && y >= 0 && y < nCol;
+    }
+}
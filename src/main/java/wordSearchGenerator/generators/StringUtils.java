@@ -1,21 +1,71 @@
 package wordSearchGenerator.generators;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Arrays;
+import java.util.BitSet;
 
 public class StringUtils {
     public static Character[] getDistinctCharacters(String s) {
-        List<Character> uniqueChars = new ArrayList<Character>();
-        for (int i = 0; i < s.length(); i++)
-            if (!uniqueChars.contains(s.charAt(i)))
-                uniqueChars.add(s.charAt(i));
-        return uniqueChars.toArray(new Character[uniqueChars.size()]);
+        char[] distinct = getDistinctChars(s);
+        Character[] boxed = new Character[distinct.length];
+        for (int i = 0; i < distinct.length; i++)
+            boxed[i] = distinct[i];
+        return boxed;
+    }
+
+    /**
+     * @return the distinct characters of all the texts in the order they first appear
+     */
+    public static char[] getDistinctChars(CharSequence... texts) {
+        BitSet seen = new BitSet();
+        int length = 0;
+        for (CharSequence text : texts)
+            length += text.length();
+        char[] distinct = new char[length];
+        int n = 0;
+        for (CharSequence text : texts) {
+            for (int i = 0; i < text.length(); i++) {
+                char c = text.charAt(i);
+                if (!seen.get(c)) {
+                    seen.set(c);
+                    distinct[n++] = c;
+                }
+            }
+        }
+        return n == length ? distinct : Arrays.copyOf(distinct, n);
     }
 
     public static String reverse(String s) {
-        String ret = "";
-        for (int i = 0; i < s.length(); i++)
-            ret = s.charAt(i) + ret;
-        return ret;
+        char[] chars = s.toCharArray();
+        for (int i = 0, j = chars.length - 1; i < j; i++, j--) {
+            char c = chars[i];
+            chars[i] = chars[j];
+            chars[j] = c;
+        }
+        return new String(chars);
+    }
+
+    /**
+     * Compares the text with itself read backwards, without building the reverse
+     */
+    public static boolean isPalindrome(CharSequence s) {
+        for (int i = 0, j = s.length() - 1; i < j; i++, j--)
+            if (s.charAt(i) != s.charAt(j))
+                return false;
+        return true;
+    }
+
+    /**
+     * @return true if the text contains the word read backwards, without building the reverse
+     */
+    public static boolean containsReversed(CharSequence text, CharSequence word) {
+        int last = word.length() - 1;
+        for (int start = 0; start + last < text.length(); start++) {
+            int j = 0;
+            while (j <= last && text.charAt(start + j) == word.charAt(last - j))
+                j++;
+            if (j > last)
+                return true;
+        }
+        return last < 0;
     }
 }
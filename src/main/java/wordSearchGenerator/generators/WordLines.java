@@ -0,0 +1,161 @@
+package wordSearchGenerator.generators;
+
+import static wordSearchGenerator.generators.WordSearchEngine.EMPTY;
+import static wordSearchGenerator.generators.WordSearchEngine.X_DELTA;
+import static wordSearchGenerator.generators.WordSearchEngine.Y_DELTA;
+import static wordSearchGenerator.generators.WordSearchEngine.nAxes;
+
+/**
+ * The line rules of a word search over any grid that can tell the letter at a cell:
+ * which fill characters would complete a word at a cell, and whether a letter completes an instance
+ * that isn't one of the placements. WordSearchEngine runs them over its flat grid and
+ * StreamingWordSearchGenerator over its row window, so the two can't disagree on what's valid
+ */
+final class WordLines {
+    interface Grid {
+        /**
+         * @return the letter at (x, y), EMPTY if it isn't set
+         */
+        char letterAt(int x, int y);
+
+        /**
+         * @return true if word w was inserted along the line on the axis that starts at (sx, sy), read either way
+         */
+        boolean isPlacement(int w, int axis, int sx, int sy);
+    }
+
+    private final int nRow;
+    private final int nCol;
+    private char[][] mWords;
+    private boolean[] mPalindrome;
+    /**
+     * mWordBits[w][i] is the fill character bit of the i-th letter of word w, 0 if it isn't a fill character
+     */
+    private long[][] mWordBits;
+
+    WordLines(int nRow, int nCol) {
+        this.nRow = nRow;
+        this.nCol = nCol;
+    }
+
+    void setWords(char[][] words, boolean[] palindrome, long[][] wordBits) {
+        mWords = words;
+        mPalindrome = palindrome;
+        mWordBits = wordBits;
+    }
+
+    /**
+     * @param bits reused if it's long enough
+     * @return the fill character bit of every letter of the word, 0 for a letter that isn't a fill character
+     */
+    static long[] wordBits(char[] word, char[] fillChars, long[] bits) {
+        if (bits == null || bits.length < word.length)
+            bits = new long[word.length];
+        for (int i = 0; i < word.length; i++) {
+            bits[i] = 0;
+            for (int f = 0; f < fillChars.length; f++)
+                if (fillChars[f] == word[i])
+                    bits[i] = 1L << f;
+        }
+        return bits;
+    }
+
+    /**
+     * Every line through (x, y) also goes through one or both of its neighbours on the axis,
+     * so the two letters next to it rule out nearly every line before walking it.
+     * completesExtraInstance() prunes the lines the same way
+     *
+     * @return fill character bits of the letters that would complete a word at (x, y) with the letters around it
+     */
+    long forbiddenAt(Grid grid, int x, int y) {
+        long forbidden = 0;
+        for (int o = 0; o < nAxes; o++) {
+            int dx = X_DELTA[o];
+            int dy = Y_DELTA[o];
+            char before = letterAt(grid, x - dx, y - dy);
+            char after = letterAt(grid, x + dx, y + dy);
+            for (int w = 0; w < mWords.length; w++) {
+                char[] word = mWords[w];
+                int last = word.length - 1;
+                // An empty neighbour leaves only the lines that end at (x, y)
+                int kMax = before == EMPTY ? 0 : last;
+                for (int k = after == EMPTY ? last : 0; k <= kMax; k++) {
+                    boolean forward = (k == 0 || before == word[k - 1]) && (k == last || after == word[k + 1]);
+                    boolean backward = !mPalindrome[w]
+                            && (k == 0 || before == word[last - k + 1]) && (k == last || after == word[last - k - 1]);
+                    if (!forward && !backward) continue;
+                    int sx = x - k * dx;
+                    int sy = y - k * dy;
+                    if (!fits(sx, sy, dx, dy, last)) continue;
+                    for (int j = 0, cx = sx, cy = sy; j <= last && (forward || backward); j++, cx += dx, cy += dy) {
+                        if (j == k) continue;
+                        char letter = grid.letterAt(cx, cy);
+                        forward &= letter == word[j];
+                        backward &= letter == word[last - j];
+                    }
+                    if (forward)
+                        forbidden |= mWordBits[w][k];
+                    if (backward)
+                        forbidden |= mWordBits[w][last - k];
+                }
+            }
+        }
+        return forbidden;
+    }
+
+    /**
+     * Every line through (x, y) that spells a word has to be one of the placements
+     */
+    boolean completesExtraInstance(Grid grid, int x, int y) {
+        char c = grid.letterAt(x, y);
+        for (int o = 0; o < nAxes; o++) {
+            int dx = X_DELTA[o];
+            int dy = Y_DELTA[o];
+            char before = letterAt(grid, x - dx, y - dy);
+            char after = letterAt(grid, x + dx, y + dy);
+            for (int w = 0; w < mWords.length; w++) {
+                char[] word = mWords[w];
+                int last = word.length - 1;
+                // A single letter is the same line on every axis
+                if (last == 0 && o > 0) continue;
+                // An empty neighbour leaves only the lines that end at (x, y)
+                int kMax = before == EMPTY ? 0 : last;
+                for (int k = after == EMPTY ? last : 0; k <= kMax; k++) {
+                    boolean forward = word[k] == c
+                            && (k == 0 || before == word[k - 1]) && (k == last || after == word[k + 1]);
+                    boolean backward = word[last - k] == c
+                            && (k == 0 || before == word[last - k + 1]) && (k == last || after == word[last - k - 1]);
+                    if (!forward && !backward) continue;
+                    int sx = x - k * dx;
+                    int sy = y - k * dy;
+                    if (!fits(sx, sy, dx, dy, last)) continue;
+                    for (int j = 0, cx = sx, cy = sy; j <= last && (forward || backward); j++, cx += dx, cy += dy) {
+                        if (j == k) continue;
+                        char letter = grid.letterAt(cx, cy);
+                        forward &= letter == word[j];
+                        backward &= letter == word[last - j];
+                    }
+                    if ((forward || backward) && !grid.isPlacement(w, o, sx, sy))
+                        return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return the letter at (x, y), EMPTY outside the grid
+     */
+    private char letterAt(Grid grid, int x, int y) {
+        return x >= 0 && x < nRow && y >= 0 && y < nCol ? grid.letterAt(x, y) : EMPTY;
+    }
+
+    /**
+     * @return true if the line of length last + 1 stepping (dx, dy) from (sx, sy) is inside the grid
+     */
+    private boolean fits(int sx, int sy, int dx, int dy, int last) {
+        int ex = sx + last * dx;
+        int ey = sy + last * dy;
+        return sx >= 0 && sx < nRow && sy >= 0 && sy < nCol && ex >= 0 && ex < nRow && ey >= 0 && ey < nCol;
+    }
+}
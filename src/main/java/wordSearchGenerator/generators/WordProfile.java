@@ -0,0 +1,161 @@
+package wordSearchGenerator.generators;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Everything the generators work out from the words alone, computed once for a word list
+ * and shared by every build, and every engine, made from it. A shared profile never changes,
+ * only the one a WordSearchGenerator's engine makes for itself is loaded with other words, see load()
+ */
+final class WordProfile {
+    private static final int[] NO_CONSTRAINTS = new int[0];
+
+    String[] words;
+    char[][] letters;
+    boolean[] palindrome;
+    int maxLength;
+    int[] insertOrder;
+    /**
+     * The distinct characters of the words in the order they first appear, the CharactersOfTheWord fill
+     */
+    char[] distinctChars;
+    /**
+     * Indexed by character, see constraints(). Null for characters in none of the words
+     */
+    private int[][] mConstraints;
+    /**
+     * Constraints per character while loading, all zero in between
+     */
+    private int[] mCounts;
+    private char[] mDistinct;
+
+    WordProfile(String[] words) {
+        load(Arrays.asList(words), Integer.MAX_VALUE);
+    }
+
+    /**
+     * Switches the profile to other words. Every array whose size still fits is filled again in place:
+     * the word arrays when the count is the same, the letters of each word of the same length,
+     * the constraints of each character that has as many as before
+     *
+     * @param maxDistinct most distinct characters the words can have, Long.SIZE when they're the fill
+     * @throws IllegalArgumentException if the words aren't valid, see WordSearchEngine.validateWords,
+     *                                  or have too many distinct characters. The profile is left as it was
+     */
+    void load(List<String> list, int maxDistinct) {
+        WordSearchEngine.validateWords(list);
+        int n = list.size();
+        int maxChar = 0;
+        for (int w = 0; w < n; w++) {
+            String word = list.get(w);
+            for (int i = 0; i < word.length(); i++)
+                maxChar = Math.max(maxChar, word.charAt(i));
+        }
+        if (mConstraints == null || mConstraints.length <= maxChar) {
+            mConstraints = mConstraints == null ? new int[maxChar + 1][] : Arrays.copyOf(mConstraints, maxChar + 1);
+            mCounts = new int[maxChar + 1];
+        }
+        if (countDistinct(list) > maxDistinct)
+            throw new IllegalArgumentException("More than " + maxDistinct + " distinct characters");
+
+        words = list.toArray(words != null && words.length == n ? words : new String[n]);
+        if (letters == null || letters.length != n) {
+            letters = new char[n][];
+            palindrome = new boolean[n];
+            insertOrder = new int[n];
+        }
+        int longest = 0;
+        int total = 0;
+        for (int w = 0; w < n; w++) {
+            int length = words[w].length();
+            if (letters[w] == null || letters[w].length != length)
+                letters[w] = new char[length];
+            words[w].getChars(0, length, letters[w], 0);
+            palindrome[w] = StringUtils.isPalindrome(words[w]);
+            longest = Math.max(longest, length);
+            total += length;
+        }
+        maxLength = longest;
+        WordSearchEngine.longestFirst(letters, insertOrder);
+        loadConstraints(total);
+    }
+
+    /**
+     * Marks the characters in mCounts and clears them again
+     */
+    private int countDistinct(List<String> list) {
+        int distinct = 0;
+        for (int w = 0; w < list.size(); w++) {
+            String word = list.get(w);
+            for (int i = 0; i < word.length(); i++) {
+                if (mCounts[word.charAt(i)] == 0) {
+                    mCounts[word.charAt(i)] = 1;
+                    distinct++;
+                }
+            }
+        }
+        for (int w = 0; w < list.size(); w++) {
+            String word = list.get(w);
+            for (int i = 0; i < word.length(); i++)
+                mCounts[word.charAt(i)] = 0;
+        }
+        return distinct;
+    }
+
+    /**
+     * Counts the constraints of every character, sizes their arrays, then fills them
+     * in the order WordSearchEngine.constraint() numbers them
+     */
+    private void loadConstraints(int total) {
+        if (mDistinct == null || mDistinct.length < total)
+            mDistinct = new char[total];
+        int nDistinct = 0;
+        for (char[] word : letters) {
+            for (char c : word)
+                if (mCounts[c]++ == 0)
+                    mDistinct[nDistinct++] = c;
+        }
+        // Read backwards a word puts each of its letters on a line once more
+        for (int w = 0; w < letters.length; w++) {
+            if (!palindrome[w])
+                for (char c : letters[w])
+                    mCounts[c]++;
+        }
+        if (distinctChars != null) {
+            for (char c : distinctChars)
+                if (c < mCounts.length && mCounts[c] == 0)
+                    mConstraints[c] = null;
+        }
+        for (int i = 0; i < nDistinct; i++) {
+            char c = mDistinct[i];
+            if (mConstraints[c] == null || mConstraints[c].length != mCounts[c])
+                mConstraints[c] = new int[mCounts[c]];
+            mCounts[c] = 0;
+        }
+        for (int w = 0; w < letters.length; w++) {
+            int last = letters[w].length - 1;
+            for (int k = 0; k <= last; k++) {
+                char c = letters[w][k];
+                mConstraints[c][mCounts[c]++] = WordSearchEngine.constraint(w, k, false);
+                if (!palindrome[w]) {
+                    c = letters[w][last - k];
+                    mConstraints[c][mCounts[c]++] = WordSearchEngine.constraint(w, k, true);
+                }
+            }
+        }
+        for (int i = 0; i < nDistinct; i++)
+            mCounts[mDistinct[i]] = 0;
+        if (distinctChars == null || distinctChars.length != nDistinct)
+            distinctChars = new char[nDistinct];
+        System.arraycopy(mDistinct, 0, distinctChars, 0, nDistinct);
+    }
+
+    /**
+     * @return every (word, index, reversed) c could complete a line as, packed by WordSearchEngine.constraint(),
+     * empty if c is in none of the words
+     */
+    int[] constraints(char c) {
+        return c < mConstraints.length && mConstraints[c] != null ? mConstraints[c] : NO_CONSTRAINTS;
+    }
+}
@@ -0,0 +1,1136 @@
+package wordSearchGenerator.generators;
+
+import wordSearchGenerator.models.BuildStatus;
+import wordSearchGenerator.models.Difficulty;
+import wordSearchGenerator.models.DifficultyStats;
+import wordSearchGenerator.models.GenerationStats;
+import wordSearchGenerator.models.Placement;
+import wordSearchGenerator.models.PlacementRanking;
+import wordSearchGenerator.models.Point;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+
+/**
+ * Allocation free generation over a flat char grid.
+ * Cell (x, y) is stored at x * nCol + y, the orientations move x and y
+ * the same way as WordSearchGenerator.getRelativePoint
+ */
+class WordSearchEngine {
+    /**
+     * Same marker Node uses for a letter that hasn't been set
+     */
+    static final char EMPTY = '0';
+
+    static final int[] X_DELTA = {1, 1, 0, -1, -1, -1, 0, 1};
+    static final int[] Y_DELTA = {0, 1, 1, 1, 0, -1, -1, -1};
+
+    /**
+     * Orientations 4 to 7 are 0 to 3 walked backwards, checking the words and their reverses
+     * along these four covers every line through a cell
+     */
+    static final int nAxes = 4;
+
+    /**
+     * Orientations PREVIOUS to PREVIOUS + 3 step from a cell to the neighbours that come before it in index order,
+     * up right, up, up left and left
+     */
+    static final int PREVIOUS = 3;
+
+    /**
+     * Random slots tried for a word before looking through every slot it fits in
+     */
+    static final int MAX_INSERT_ATTEMPTS = 100;
+
+    /**
+     * Cells filled or insert attempts made between checks of the cancellation token
+     */
+    static final int CHECK_INTERVAL = 256;
+
+    private final int nRow;
+    private final int nCol;
+    private String[] mWordStrings;
+    private char[][] mWords;
+    private boolean[] mPalindrome;
+    private char[] mFillChars;
+    /**
+     * Holds, for every character, every (word, index, reversed) the character could be part of a line as,
+     * packed by constraint(). Lets one pass over a cell's lines handle all the words at once
+     */
+    private WordProfile mProfile;
+    /**
+     * mWordBits[w][i] is the fill character bit of the i-th letter of word w, 0 if it isn't a fill character
+     */
+    private long[][] mWordBits;
+    private long mAllFillBits;
+    /**
+     * Fill characters that are letters of the words
+     */
+    private long mWordLetters;
+    /**
+     * Fill characters that are words on their own, no line through a cell ever leaves them one letter short
+     * so they're forbidden everywhere from the start
+     */
+    private long mSingleLetters;
+    private int[] mInsertOrder;
+    private final char[] mGrid;
+    /**
+     * Fill characters that would complete a word at each empty cell, a bit per index in mFillChars.
+     * Setting a cell adds the bits for every line through it left with one empty cell
+     */
+    private final long[] mForbidden;
+    /**
+     * mSlots[w][o] is the number of starting cells word w fits in with orientation o, mSlotTotal[w] their sum
+     */
+    private int[][] mSlots;
+    private int[] mSlotTotal;
+    private PlacementRanking mRanking = PlacementRanking.Random;
+    private final int[] mOrientationUse = new int[X_DELTA.length];
+    private RandomSource mRandom = new Xoshiro128PlusPlus();
+    private final WordLines mLines;
+    /**
+     * The grid as WordLines sees it
+     */
+    private final WordLines.Grid mGridView = new WordLines.Grid() {
+        public char letterAt(int x, int y) {
+            return mGrid[x * nCol + y];
+        }
+
+        public boolean isPlacement(int w, int axis, int sx, int sy) {
+            return WordSearchEngine.this.isPlacement(w, axis, sx * nCol + sy);
+        }
+    };
+
+    private int[] mStart;
+    private int[] mOrientation;
+    private boolean[] mPlaced;
+    private int[] mWritten;
+    /**
+     * Cells of inserted words, backtracking never clears them
+     */
+    private final boolean[] mFixed;
+    /**
+     * Cells waiting to be filled again after backtracking
+     */
+    private final int[] mPending;
+    private int mMaxLength;
+    private boolean mBacktracking = false;
+    private int mBuildFailures = 0;
+    private int mBacktracks = 0;
+    /**
+     * Counters of the current build and of every build since metrics were turned on, null while they're off
+     * so the hot paths only pay for a null check
+     */
+    private GenerationCounters mCounters;
+    private GenerationCounters mTotals;
+    private GenerationListener mListener;
+    private CancellationToken mToken;
+    private BuildStatus mStopStatus;
+    private int mCheckCountdown;
+    /**
+     * mNearMisses[idx] is the number of lines left one letter short of a word at the empty cell idx,
+     * each one a decoy once the cell is filled with any other letter. Null while difficulty isn't tracked
+     */
+    private int[] mNearMisses;
+    private int mDecoys;
+    /**
+     * Sum of mNearMisses over the cells still empty, decoys the fill is bound to make
+     */
+    private int mPendingDecoys;
+    /**
+     * Set while the inserted words forbid around them, when every line made of their letters is seen
+     * from each of its letters and only counts for the first one
+     */
+    private boolean mFirstMatchOnly = false;
+    private int mBuildBacktracks;
+    private Difficulty mTarget;
+    private long mTargetDecoys;
+    /**
+     * Bit o is set if words may be inserted with orientation o
+     */
+    private int mOrientations = 0xff;
+    /**
+     * mFollowing[c] has the fill character bits of every letter next to c in a word, forwards or backwards.
+     * Built while a target difficulty is set
+     */
+    private long[] mFollowing;
+    /**
+     * Partial words the target difficulty fill is spelling, mChains[idx] packs the word, the index of the letter
+     * at idx and the orientation pointing back to the previous letter, -1 if the cell isn't part of one
+     */
+    private long[] mChains;
+
+    WordSearchEngine(int nRow, int nCol, String word, char[] fillChars) {
+        this(nRow, nCol, new String[]{word}, fillChars);
+    }
+
+    WordSearchEngine(int nRow, int nCol, String[] words, char[] fillChars) {
+        this(nRow, nCol, new WordProfile(words), fillChars);
+    }
+
+    WordSearchEngine(int nRow, int nCol, WordProfile profile, char[] fillChars) {
+        // Slots are numbered cell * 8 + orientation
+        if ((long) nRow * nCol * X_DELTA.length > Integer.MAX_VALUE)
+            throw new IllegalArgumentException("Grid too large");
+        this.nRow = nRow;
+        this.nCol = nCol;
+        this.mGrid = new char[nRow * nCol];
+        this.mForbidden = new long[nRow * nCol];
+        this.mFixed = new boolean[nRow * nCol];
+        this.mPending = new int[nRow * nCol];
+        this.mLines = new WordLines(nRow, nCol);
+        setWords(profile, fillChars);
+    }
+
+    /**
+     * Switches to other words for the following builds. The grid is kept, and so is every buffer
+     * for the words that's already big enough, so a long lived engine stops allocating once it has seen its largest word list
+     */
+    void setWords(WordProfile profile, char[] fillChars) {
+        if (fillChars.length > Long.SIZE)
+            throw new IllegalArgumentException("More than " + Long.SIZE + " fill characters");
+        String[] words = profile.words;
+        int n = words.length;
+        mProfile = profile;
+        mWordStrings = words;
+        mWords = profile.letters;
+        mPalindrome = profile.palindrome;
+        mInsertOrder = profile.insertOrder;
+        mMaxLength = profile.maxLength;
+        if (mFillChars == null || mFillChars.length != fillChars.length)
+            mFillChars = new char[fillChars.length];
+        System.arraycopy(fillChars, 0, mFillChars, 0, fillChars.length);
+        mAllFillBits = fillChars.length == Long.SIZE ? -1L : (1L << fillChars.length) - 1;
+
+        if (mStart == null || mStart.length < n) {
+            mWordBits = new long[n][];
+            mSlots = new int[n][X_DELTA.length];
+            mSlotTotal = new int[n];
+            mStart = new int[n];
+            mOrientation = new int[n];
+            mPlaced = new boolean[n];
+        }
+        if (mWritten == null || mWritten.length < mMaxLength)
+            mWritten = new int[mMaxLength];
+        long singleLetters = 0;
+        long wordLetters = 0;
+        for (int w = 0; w < n; w++) {
+            int length = mWords[w].length;
+            mWordBits[w] = WordLines.wordBits(mWords[w], fillChars, mWordBits[w]);
+            for (int i = 0; i < length; i++)
+                wordLetters |= mWordBits[w][i];
+            if (length == 1)
+                singleLetters |= mWordBits[w][0];
+        }
+        mSingleLetters = singleLetters;
+        mWordLetters = wordLetters;
+        mLines.setWords(mWords, mPalindrome, mWordBits);
+        countSlots();
+        if (mTarget != null)
+            mFollowing = following(mWords, fillChars);
+        clear();
+    }
+
+    /**
+     * Orientations left out of mOrientations get no slots
+     */
+    private void countSlots() {
+        for (int w = 0; w < mWords.length; w++) {
+            int length = mWords[w].length;
+            mSlotTotal[w] = 0;
+            for (int o = 0; o < X_DELTA.length; o++) {
+                mSlots[w][o] = (mOrientations >> o & 1) == 0 ? 0
+                        : rowsFitting(nRow, X_DELTA[o], length) * rowsFitting(nCol, Y_DELTA[o], length);
+                mSlotTotal[w] += mSlots[w][o];
+            }
+        }
+    }
+
+    private static long[] following(char[][] words, char[] fillChars) {
+        char max = 0;
+        for (char[] word : words)
+            for (char c : word)
+                max = (char) Math.max(max, c);
+        long[] following = new long[max + 1];
+        for (char[] word : words) {
+            for (int i = 0; i + 1 < word.length; i++) {
+                for (int f = 0; f < fillChars.length; f++) {
+                    if (fillChars[f] == word[i + 1])
+                        following[word[i]] |= 1L << f;
+                    if (fillChars[f] == word[i])
+                        following[word[i + 1]] |= 1L << f;
+                }
+            }
+        }
+        return following;
+    }
+
+    WordProfile getProfile() {
+        return mProfile;
+    }
+
+    /**
+     * A word that contains another listed word, forwards or backwards,
+     * would always make a second instance of it
+     */
+    static void validateWords(List<String> words) {
+        if (words.isEmpty())
+            throw new IllegalArgumentException("No words to insert");
+        for (int i = 0; i < words.size(); i++) {
+            String word = words.get(i);
+            if (word.isEmpty())
+                throw new IllegalArgumentException("Empty word");
+            for (int j = 0; j < words.size(); j++) {
+                String other = words.get(j);
+                if (i != j && (other.contains(word) || StringUtils.containsReversed(other, word)))
+                    throw new IllegalArgumentException(other + " contains " + word);
+            }
+        }
+    }
+
+    static int constraint(int word, int k, boolean reversed) {
+        return word << 16 | k << 1 | (reversed ? 1 : 0);
+    }
+
+    static int constraintWord(int constraint) {
+        return constraint >>> 16;
+    }
+
+    static int constraintIndex(int constraint) {
+        return (constraint >>> 1) & 0x7fff;
+    }
+
+    static boolean constraintReversed(int constraint) {
+        return (constraint & 1) != 0;
+    }
+
+    /**
+     * Long words are the hardest to fit, they go in while the grid is still empty
+     */
+    static void longestFirst(char[][] words, int[] order) {
+        for (int i = 0; i < order.length; i++) {
+            int j = i;
+            while (j > 0 && words[order[j - 1]].length < words[i].length) {
+                order[j] = order[j - 1];
+                j--;
+            }
+            order[j] = i;
+        }
+    }
+
+    /**
+     * Everything random in a build comes from this source, the same seed and words give the same grid
+     */
+    void setRandom(RandomSource random) {
+        mRandom = random;
+    }
+
+    void setPlacementRanking(PlacementRanking ranking) {
+        mRanking = ranking;
+    }
+
+    /**
+     * @return number of starting coordinates along one side that keep a word of the length inside it
+     */
+    static int rowsFitting(int side, int delta, int length) {
+        return Math.max(0, delta == 0 ? side : side - length + 1);
+    }
+
+    void build() {
+        build(null);
+    }
+
+    /**
+     * With a token, a build that's told to stop returns right away and leaves the grid as it was,
+     * without one it only stops for an interrupt, see checkInterrupted
+     *
+     * @return Completed, or why the token stopped the build
+     */
+    BuildStatus build(CancellationToken token) {
+        mToken = token;
+        mStopStatus = null;
+        mCheckCountdown = CHECK_INTERVAL;
+        GenerationCounters counters = mCounters;
+        if (counters != null) {
+            counters.reset();
+            counters.builds = 1;
+        }
+        mBuildBacktracks = mBacktracks;
+        try {
+            clear();
+            while (true) {
+                if (counters == null) {
+                    if (insertWords() && fillWordSearch())
+                        break;
+                } else if (timedAttempt(counters)) {
+                    break;
+                }
+                if (mStopStatus != null || (token != null && stopNow()))
+                    break;
+                clear();
+                mBuildFailures++;
+                if (counters != null)
+                    counters.retries++;
+                if (token == null)
+                    checkInterrupted();
+            }
+        } finally {
+            mToken = null;
+        }
+        if (counters != null) {
+            mTotals.add(counters);
+            if (mListener != null)
+                mListener.onBuild(counters.snapshot());
+        }
+        return mStopStatus == null ? BuildStatus.Completed : mStopStatus;
+    }
+
+    private boolean timedAttempt(GenerationCounters counters) {
+        long start = System.nanoTime();
+        boolean inserted = insertWords();
+        long inserting = System.nanoTime();
+        counters.insertNanos += inserting - start;
+        if (!inserted)
+            return false;
+        boolean filled = fillWordSearch();
+        counters.fillNanos += System.nanoTime() - inserting;
+        return filled;
+    }
+
+    /**
+     * Lets a build running on a thread that was interrupted, for example by Future.cancel(true), stop at its next retry
+     */
+    private static void checkInterrupted() {
+        if (Thread.currentThread().isInterrupted())
+            throw new CancellationException("Build interrupted");
+    }
+
+    /**
+     * Called for every cell and insert attempt, only asks the token every CHECK_INTERVAL calls
+     * so a deadline costs a nanoTime call per interval rather than per cell
+     */
+    private boolean shouldStop() {
+        if (mToken == null || --mCheckCountdown > 0)
+            return false;
+        mCheckCountdown = CHECK_INTERVAL;
+        return stopNow();
+    }
+
+    private boolean stopNow() {
+        if (mStopStatus == null)
+            mStopStatus = mToken.check();
+        return mStopStatus != null;
+    }
+
+    /**
+     * @param enabled turns counting on or off, turning it on starts the totals from zero
+     */
+    void setMetricsEnabled(boolean enabled) {
+        if (enabled == (mCounters != null)) return;
+        mCounters = enabled ? new GenerationCounters() : null;
+        mTotals = enabled ? new GenerationCounters() : null;
+    }
+
+    /**
+     * Turns metrics on if listener isn't null
+     */
+    void setListener(GenerationListener listener) {
+        mListener = listener;
+        if (listener != null)
+            setMetricsEnabled(true);
+    }
+
+    /**
+     * @return totals of every build since metrics were turned on, null if they're off
+     */
+    GenerationStats getStats() {
+        return mTotals == null ? null : mTotals.snapshot();
+    }
+
+    void resetStats() {
+        if (mTotals != null)
+            mTotals.reset();
+    }
+
+    void clear() {
+        if (mCounters != null)
+            mCounters.gridClears++;
+        Arrays.fill(mGrid, EMPTY);
+        Arrays.fill(mForbidden, mSingleLetters);
+        Arrays.fill(mFixed, false);
+        Arrays.fill(mPlaced, false);
+        if (mNearMisses != null)
+            Arrays.fill(mNearMisses, 0);
+        if (mChains != null)
+            Arrays.fill(mChains, -1);
+        mDecoys = 0;
+        mPendingDecoys = 0;
+    }
+
+    /**
+     * Counts decoys as the fill goes, for getDifficulty. Costs a counter update per line
+     * the fill already looks at, nothing while it's off
+     */
+    void setDifficultyTracking(boolean enabled) {
+        if (enabled == (mNearMisses != null)) return;
+        mNearMisses = enabled ? new int[mGrid.length] : null;
+        if (!enabled)
+            setTargetDifficulty(null);
+    }
+
+    /**
+     * Inserts the words only in the orientations of the level and steers the letters the fill picks
+     * toward making decoys or away from it, so the puzzle scores inside the level's band.
+     * Turns difficulty tracking on, null goes back to plain generation
+     */
+    void setTargetDifficulty(Difficulty target) {
+        mTarget = target;
+        mOrientations = target == null ? 0xff : target.orientations;
+        mFollowing = target == null ? null : following(mWords, mFillChars);
+        mChains = target == null ? null : new long[mGrid.length];
+        if (target != null) {
+            Arrays.fill(mChains, -1);
+            setDifficultyTracking(true);
+        }
+        countSlots();
+    }
+
+    /**
+     * @return difficulty of the last build, null if tracking is off
+     */
+    DifficultyStats getDifficulty() {
+        if (mNearMisses == null)
+            return null;
+        // Backtracking fills cells again, which the running count can't tell from new decoys
+        return difficulty(mBacktracks == mBuildBacktracks ? mDecoys : countDecoys());
+    }
+
+    private DifficultyStats difficulty(int decoys) {
+        int words = 0, reversed = 0, diagonal = 0, used = 0;
+        for (int w = 0; w < mWords.length; w++) {
+            if (!mPlaced[w]) continue;
+            words++;
+            int o = mOrientation[w];
+            if (o >= nAxes)
+                reversed++;
+            if (o % 2 == 1)
+                diagonal++;
+            used |= 1 << o;
+        }
+        return new DifficultyStats(mGrid.length, words, decoys, reversed, diagonal, Integer.bitCount(used));
+    }
+
+    /**
+     * Goes through every line of the grid for lines one letter short of a word, what the fill counts as it goes
+     */
+    int countDecoys() {
+        int decoys = 0;
+        for (int start = 0; start < mGrid.length; start++) {
+            for (int o = 0; o < nAxes; o++) {
+                int step = X_DELTA[o] * nCol + Y_DELTA[o];
+                for (int w = 0; w < mWords.length; w++) {
+                    char[] word = mWords[w];
+                    int last = word.length - 1;
+                    if (last == 0 || lineStart(start / nCol, start % nCol, o, 0, last) < 0) continue;
+                    if (mismatches(start, step, word, false) == 1)
+                        decoys++;
+                    if (!mPalindrome[w] && mismatches(start, step, word, true) == 1)
+                        decoys++;
+                }
+            }
+        }
+        return decoys;
+    }
+
+    private int mismatches(int start, int step, char[] word, boolean reversed) {
+        int last = word.length - 1;
+        int mismatches = 0;
+        for (int j = 0, idx = start; j <= last && mismatches < 2; j++, idx += step) {
+            if (mGrid[idx] != word[reversed ? last - j : j])
+                mismatches++;
+        }
+        return mismatches;
+    }
+
+    /**
+     * @param backtracking if true a cell without a valid character clears the letters around it
+     *                     and fills them again instead of starting the whole build over
+     */
+    void setBacktracking(boolean backtracking) {
+        mBacktracking = backtracking;
+    }
+
+// -------- INSERTING THE SINGLE INSTANCE OF EACH WORD -------------//
+
+    private boolean insertWords() {
+        for (int w : mInsertOrder) {
+            if (!insertWord(w))
+                return false;
+        }
+        mFirstMatchOnly = true;
+        for (int w = 0; w < mWords.length; w++) {
+            int o = mOrientation[w];
+            int step = X_DELTA[o] * nCol + Y_DELTA[o];
+            for (int i = 0, idx = mStart[w]; i < mWords[w].length; i++, idx += step) {
+                // A letter shared with an earlier word has had its turn, the masks don't mind but the counts would
+                if (mNearMisses == null || !coveredBefore(w, idx))
+                    forbidAround(idx);
+            }
+        }
+        mFirstMatchOnly = false;
+        return true;
+    }
+
+    private boolean coveredBefore(int w, int idx) {
+        for (int v = 0; v < w; v++) {
+            int o = mOrientation[v];
+            int step = X_DELTA[o] * nCol + Y_DELTA[o];
+            for (int i = 0, cell = mStart[v]; i < mWords[v].length; i++, cell += step)
+                if (cell == idx)
+                    return true;
+        }
+        return false;
+    }
+
+    /**
+     * Draws slots uniformly from the ones inside the grid, so a draw never goes out of bounds.
+     * Only when the words already inserted block the draws, or the slots are ranked,
+     * does it go through every slot, which always finds one if there is one
+     */
+    private boolean insertWord(int w) {
+        if (mSlotTotal[w] == 0)
+            return false;
+        if (mRanking == PlacementRanking.Random) {
+            for (int attempt = 0; attempt < MAX_INSERT_ATTEMPTS; attempt++) {
+                if (shouldStop()) return false;
+                int slot = mRandom.nextInt(mSlotTotal[w]);
+                int o = 0;
+                while (slot >= mSlots[w][o])
+                    slot -= mSlots[w][o++];
+                int last = mWords[w].length - 1;
+                int cols = rowsFitting(nCol, Y_DELTA[o], mWords[w].length);
+                // Orientations that go backwards along a side start at least a word length in
+                int x = slot / cols + (X_DELTA[o] < 0 ? last : 0);
+                int y = slot % cols + (Y_DELTA[o] < 0 ? last : 0);
+                if (tryInsert(w, x, y, o))
+                    return true;
+            }
+        }
+        return insertBestSlot(w);
+    }
+
+    /**
+     * Picks the best ranked slot among all the ones the word fits in, uniformly among ties.
+     * A pick that completes an extra instance is ruled out and the slots gone through again
+     */
+    private boolean insertBestSlot(int w) {
+        char[] word = mWords[w];
+        int last = word.length - 1;
+        int rejected = 0;
+        Arrays.fill(mOrientationUse, 0);
+        for (int v = 0; v < mWords.length; v++)
+            if (mPlaced[v])
+                mOrientationUse[mOrientation[v]]++;
+        while (!shouldStop()) {
+            int best = -1;
+            int bestScore = Integer.MIN_VALUE;
+            int ties = 0;
+            for (int o = 0; o < X_DELTA.length; o++) {
+                if (mSlots[w][o] == 0) continue;
+                int step = X_DELTA[o] * nCol + Y_DELTA[o];
+                int x0 = X_DELTA[o] < 0 ? last : 0;
+                int y0 = Y_DELTA[o] < 0 ? last : 0;
+                int rows = rowsFitting(nRow, X_DELTA[o], word.length);
+                int cols = rowsFitting(nCol, Y_DELTA[o], word.length);
+                for (int x = x0; x < x0 + rows; x++) {
+                    for (int y = y0; y < y0 + cols; y++) {
+                        int start = x * nCol + y;
+                        int overlap = 0;
+                        for (int i = 0, idx = start; i <= last && overlap >= 0; i++, idx += step) {
+                            if (mGrid[idx] == word[i])
+                                overlap++;
+                            else if (mGrid[idx] != EMPTY)
+                                overlap = -1;
+                        }
+                        if (overlap < 0 || isRejected(start * X_DELTA.length + o, rejected)) continue;
+                        int score = score(o, overlap);
+                        if (score > bestScore) {
+                            bestScore = score;
+                            best = start * X_DELTA.length + o;
+                            ties = 1;
+                        } else if (score == bestScore && mRandom.nextInt(++ties) == 0) {
+                            best = start * X_DELTA.length + o;
+                        }
+                    }
+                }
+            }
+            if (best < 0)
+                return false;
+            int start = best / X_DELTA.length;
+            if (tryInsert(w, start / nCol, start % nCol, best % X_DELTA.length))
+                return true;
+            if (rejected == mPending.length)
+                return false;
+            mPending[rejected++] = best;
+        }
+        return false;
+    }
+
+    /**
+     * Slots that completed an extra instance, kept in mPending which is free while inserting
+     */
+    private boolean isRejected(int slot, int rejected) {
+        for (int i = 0; i < rejected; i++)
+            if (mPending[i] == slot)
+                return true;
+        return false;
+    }
+
+    private int score(int o, int overlap) {
+        switch (mRanking) {
+            case MostOverlap:
+                return overlap;
+            case BalanceOrientations:
+                return -mOrientationUse[o];
+            default:
+                return 0;
+        }
+    }
+
+    /**
+     * Writes the word if it fits over the letters already in the grid and doesn't
+     * complete a second instance of any word with them, otherwise leaves the grid as it was
+     */
+    private boolean tryInsert(int w, int x, int y, int o) {
+        if (mCounters != null)
+            mCounters.insertAttempts++;
+        char[] word = mWords[w];
+        int last = word.length - 1;
+        if (!inBounds(x + last * X_DELTA[o], y + last * Y_DELTA[o]))
+            return rejectInsert();
+        int step = X_DELTA[o] * nCol + Y_DELTA[o];
+        int start = x * nCol + y;
+        for (int i = 0, idx = start; i <= last; i++, idx += step) {
+            if (mGrid[idx] != EMPTY && mGrid[idx] != word[i])
+                return rejectInsert();
+        }
+
+        int nWritten = 0;
+        for (int i = 0, idx = start; i <= last; i++, idx += step) {
+            if (mGrid[idx] == EMPTY) {
+                mGrid[idx] = word[i];
+                mFixed[idx] = true;
+                mWritten[nWritten++] = idx;
+            }
+        }
+        mStart[w] = start;
+        mOrientation[w] = o;
+        mPlaced[w] = true;
+
+        for (int i = 0; i < nWritten; i++) {
+            if (mLines.completesExtraInstance(mGridView, mWritten[i] / nCol, mWritten[i] % nCol)) {
+                for (int j = 0; j < nWritten; j++) {
+                    mGrid[mWritten[j]] = EMPTY;
+                    mFixed[mWritten[j]] = false;
+                }
+                mPlaced[w] = false;
+                return rejectInsert();
+            }
+        }
+        return true;
+    }
+
+    private boolean rejectInsert() {
+        if (mCounters != null)
+            mCounters.rejectedInserts++;
+        return false;
+    }
+
+    private boolean isPlacement(int w, int axis, int lineStart) {
+        if (!mPlaced[w])
+            return false;
+        if (mWords[w].length == 1)
+            return mStart[w] == lineStart;
+        int o = mOrientation[w];
+        if (o < nAxes)
+            return o == axis && mStart[w] == lineStart;
+        int last = mWords[w].length - 1;
+        return o - nAxes == axis && mStart[w] + last * (X_DELTA[o] * nCol + Y_DELTA[o]) == lineStart;
+    }
+
+// -------------- LETTER INSERTION -------------------------------//
+
+    /**
+     * A line of word length is complete exactly when its last empty cell is set. Each time a cell is set,
+     * the lines through it left with one empty cell forbid the letter that would complete them there,
+     * so picking a letter outside the cell's forbidden mask never completes an extra instance of the words,
+     * whatever order the cells are filled in. Cells are filled in index order,
+     * backtracking fills the cells it cleared again in any order.
+     *
+     * @return false if a cell has no valid character and the build has to start over
+     */
+    private boolean fillWordSearch() {
+        // Backtracks allowed in one build before starting over, keeps a hopeless build from spinning
+        int budget = mGrid.length;
+        if (mTarget != null)
+            mTargetDecoys = targetDecoys();
+        for (int idx = 0; idx < mGrid.length; idx++) {
+            if (shouldStop()) return false;
+            if (mGrid[idx] != EMPTY || fillCell(idx)) continue;
+            if (!mBacktracking) return false;
+
+            int top = 0;
+            mPending[top++] = idx;
+            while (top > 0) {
+                if (shouldStop()) return false;
+                int cell = mPending[--top];
+                if (fillCell(cell)) continue;
+                if (budget-- == 0) return false;
+                int cleared = clearNeighbourhood(cell, top);
+                // Only inserted words constrain the cell, nothing to undo
+                if (cleared == top) return false;
+                mBacktracks++;
+                if (mCounters != null)
+                    mCounters.backtracks++;
+                // Bits set because of the cleared letters no longer hold
+                for (int i = top; i < cleared; i++)
+                    refreshAround(mPending[i]);
+                top = cleared;
+                // Refill the dead cell first while its lines are as open as they'll get
+                mPending[top++] = cell;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Fills the empty grid without inserting the words, the way a build fills it.
+     * Lets FeasibilityCheck measure how far a fill gets before a cell has no valid character
+     *
+     * @return index of the first cell no character fits, the grid size if the fill completes
+     */
+    int sampleFill() {
+        clear();
+        for (int idx = 0; idx < mGrid.length; idx++) {
+            if (!fillCell(idx))
+                return idx;
+        }
+        return mGrid.length;
+    }
+
+    /**
+     * Clears the grid and inserts the words the way a build does, the first half of a sampled attempt
+     *
+     * @return false if the words don't fit
+     */
+    boolean sampleInsert() {
+        clear();
+        return insertWords();
+    }
+
+    /**
+     * Fills the cells around the inserted words the way a build does, the second half of a sampled attempt
+     *
+     * @return false if the fill got stuck
+     */
+    boolean sampleFillAround() {
+        return fillWordSearch();
+    }
+
+    /**
+     * Sets a random fill character outside the cell's forbidden mask
+     */
+    private boolean fillCell(int idx) {
+        long forbidden = mForbidden[idx];
+        if (mCounters != null)
+            countFill(forbidden);
+        if (mTarget != null) {
+            if (!fillSteered(idx, forbidden)) return false;
+        } else if (forbidden == 0) {
+            // Nearly every cell, no need to walk the bits
+            mGrid[idx] = mFillChars[mRandom.nextInt(mFillChars.length)];
+        } else {
+            long allowed = mAllFillBits & ~forbidden;
+            if (allowed == 0) return false;
+            for (int skip = mRandom.nextInt(Long.bitCount(allowed)); skip > 0; skip--)
+                allowed &= allowed - 1;
+            mGrid[idx] = mFillChars[Long.numberOfTrailingZeros(allowed)];
+        }
+        if (mNearMisses != null) {
+            mDecoys += mNearMisses[idx];
+            mPendingDecoys -= mNearMisses[idx];
+        }
+        forbidAround(idx);
+        return true;
+    }
+
+    /**
+     * Keeps the decoys made so far, and the ones bound to follow, in step with the target.
+     * Behind it, spells a word from a neighbour's partial word or starts a new one, the word's last letter
+     * is forbidden by the time the fill gets to it so every partial word that gets that far ends in a decoy.
+     * Ahead of it, prefers a letter of none of the words, then one that follows none of the neighbours' letters
+     */
+    private boolean fillSteered(int idx, long forbidden) {
+        long allowed = mAllFillBits & ~forbidden;
+        if (allowed == 0) return false;
+        mChains[idx] = -1;
+        if (mDecoys + mPendingDecoys < (double) mTargetDecoys * (idx + 1) / mGrid.length) {
+            if (extendChain(idx, allowed) || startChain(idx, allowed))
+                return true;
+        } else if ((allowed & ~mWordLetters) != 0) {
+            allowed &= ~mWordLetters;
+        } else if ((allowed & ~followingNeighbours(idx)) != 0) {
+            allowed &= ~followingNeighbours(idx);
+        }
+        for (int skip = mRandom.nextInt(Long.bitCount(allowed)); skip > 0; skip--)
+            allowed &= allowed - 1;
+        mGrid[idx] = mFillChars[Long.numberOfTrailingZeros(allowed)];
+        return true;
+    }
+
+    private boolean extendChain(int idx, long allowed) {
+        int x = idx / nCol;
+        int y = idx % nCol;
+        int first = mRandom.nextInt(nAxes);
+        for (int i = 0; i < nAxes; i++) {
+            int o = PREVIOUS + (first + i) % nAxes;
+            int nx = x + X_DELTA[o];
+            int ny = y + Y_DELTA[o];
+            if (!inBounds(nx, ny)) continue;
+            long chain = mChains[nx * nCol + ny];
+            if (chain < 0 || (chain & 7) != o) continue;
+            if (setChained(idx, (int) (chain >>> 32), (int) (chain >>> 3 & 0xffff) + 1, o, allowed))
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * Starts a random word at idx along a line with room for all of it
+     */
+    private boolean startChain(int idx, long allowed) {
+        int w = mRandom.nextInt(mWords.length);
+        int last = mWords[w].length - 1;
+        if (last == 0)
+            return false;
+        int x = idx / nCol;
+        int y = idx % nCol;
+        int first = mRandom.nextInt(nAxes);
+        for (int i = 0; i < nAxes; i++) {
+            int o = PREVIOUS + (first + i) % nAxes;
+            if (inBounds(x - last * X_DELTA[o], y - last * Y_DELTA[o]))
+                return setChained(idx, w, 0, o, allowed);
+        }
+        return false;
+    }
+
+    private boolean setChained(int idx, int w, int i, int o, long allowed) {
+        if ((mWordBits[w][i] & allowed) == 0)
+            return false;
+        mGrid[idx] = mWords[w][i];
+        if (i < mWords[w].length - 1)
+            mChains[idx] = (long) w << 32 | (long) i << 3 | o;
+        return true;
+    }
+
+    /**
+     * @return fill character bits of the letters that follow the letters of the neighbours filled before idx
+     */
+    private long followingNeighbours(int idx) {
+        int x = idx / nCol;
+        int y = idx % nCol;
+        long following = 0;
+        for (int o = PREVIOUS; o < PREVIOUS + nAxes; o++) {
+            int nx = x + X_DELTA[o];
+            int ny = y + Y_DELTA[o];
+            if (!inBounds(nx, ny)) continue;
+            char c = mGrid[nx * nCol + ny];
+            if (c != EMPTY && c < mFollowing.length)
+                following |= mFollowing[c];
+        }
+        return following;
+    }
+
+    /**
+     * @return decoys that bring the inserted words to the target score, a fraction of one would start
+     * words on targets that want next to none
+     */
+    private long targetDecoys() {
+        DifficultyStats placed = difficulty(0);
+        return Math.round(DifficultyStats.decoysFor(mTarget.targetScore, placed.score, mGrid.length, placed.words));
+    }
+
+    private void countFill(long forbidden) {
+        int rejected = Long.bitCount(forbidden & mAllFillBits);
+        mCounters.rejectedCandidates += rejected;
+        if (rejected == mFillChars.length)
+            mCounters.deadCells++;
+        else
+            mCounters.filledCells++;
+    }
+
+    /**
+     * For every line through idx that matches a word apart from exactly one empty cell,
+     * forbids the missing letter at that cell
+     */
+    private void forbidAround(int idx) {
+        char c = mGrid[idx];
+        int[] constraints = mProfile.constraints(c);
+        if (constraints.length == 0) return;
+        int x = idx / nCol;
+        int y = idx % nCol;
+        for (int o = 0; o < nAxes; o++) {
+            int step = X_DELTA[o] * nCol + Y_DELTA[o];
+            for (int constraint : constraints) {
+                int w = constraintWord(constraint);
+                char[] word = mWords[w];
+                int last = word.length - 1;
+                int k = constraintIndex(constraint);
+                boolean reversed = constraintReversed(constraint);
+                int start = lineStart(x, y, o, k, last);
+                if (start < 0) continue;
+
+                int empty = -1;
+                // While difficulty is tracked a line full but for one wrong letter is a decoy made by this cell
+                int mismatch = -1;
+                boolean first = true;
+                for (int j = 0, cell = start; j <= last; j++, cell += step) {
+                    if (j == k) continue;
+                    char letter = mGrid[cell];
+                    if (letter == EMPTY) {
+                        if (empty >= 0 || mismatch >= 0) {
+                            empty = -2;
+                            break;
+                        }
+                        empty = j;
+                    } else if (letter != word[reversed ? last - j : j]) {
+                        if (mNearMisses == null || empty >= 0 || mismatch >= 0) {
+                            empty = -2;
+                            break;
+                        }
+                        mismatch = j;
+                    } else if (j < k) {
+                        first = false;
+                    }
+                }
+                boolean counts = first || !mFirstMatchOnly;
+                if (empty >= 0) {
+                    int cell = start + empty * step;
+                    mForbidden[cell] |= mWordBits[w][reversed ? last - empty : empty];
+                    if (mCounters != null)
+                        mCounters.propagations++;
+                    if (mNearMisses != null && counts) {
+                        mNearMisses[cell]++;
+                        mPendingDecoys++;
+                    }
+                } else if (empty == -1 && mismatch >= 0 && counts) {
+                    mDecoys++;
+                }
+            }
+        }
+    }
+
+    /**
+     * Recomputes the forbidden mask of every empty cell on the lines through idx from the letters around it
+     */
+    private void refreshAround(int idx) {
+        int x = idx / nCol;
+        int y = idx % nCol;
+        mForbidden[idx] = mLines.forbiddenAt(mGridView, x, y);
+        for (int o = 0; o < X_DELTA.length; o++) {
+            for (int d = 1; d < mMaxLength; d++) {
+                int nx = x + d * X_DELTA[o];
+                int ny = y + d * Y_DELTA[o];
+                if (!inBounds(nx, ny)) break;
+                if (mGrid[nx * nCol + ny] == EMPTY)
+                    mForbidden[nx * nCol + ny] = mLines.forbiddenAt(mGridView, nx, ny);
+            }
+        }
+    }
+
+    /**
+     * Empties the filled cells on every line through idx that could complete a word with it
+     * and pushes them on the pending stack
+     *
+     * @return new top of the pending stack
+     */
+    private int clearNeighbourhood(int idx, int top) {
+        int x = idx / nCol;
+        int y = idx % nCol;
+        for (int o = 0; o < X_DELTA.length; o++) {
+            for (int d = 1; d < mMaxLength; d++) {
+                int nx = x + d * X_DELTA[o];
+                int ny = y + d * Y_DELTA[o];
+                if (!inBounds(nx, ny)) break;
+                int n = nx * nCol + ny;
+                if (mGrid[n] == EMPTY || mFixed[n]) continue;
+                mGrid[n] = EMPTY;
+                mPending[top++] = n;
+            }
+        }
+        return top;
+    }
+
+    /**
+     * @return index of the first cell of the line on axis o that holds (x, y) at index k, -1 if it leaves the grid
+     */
+    private int lineStart(int x, int y, int o, int k, int last) {
+        int sx = x - k * X_DELTA[o];
+        int sy = y - k * Y_DELTA[o];
+        if (!inBounds(sx, sy) || !inBounds(sx + last * X_DELTA[o], sy + last * Y_DELTA[o]))
+            return -1;
+        return sx * nCol + sy;
+    }
+
+// -------- HELPERS -------------//
+
+    private boolean inBounds(int x, int y) {
+        return x >= 0 && x < nRow && y >= 0 && y < nCol;
+    }
+
+    char getLetter(int x, int y) {
+        return mGrid[x * nCol + y];
+    }
+
+    void copyInto(char[][] dest) {
+        for (int x = 0; x < nRow; x++)
+            System.arraycopy(mGrid, x * nCol, dest[x], 0, nCol);
+    }
+
+    Placement getPlacement(int w) {
+        int last = mWords[w].length - 1;
+        int o = mOrientation[w];
+        Point start = new Point(mStart[w] / nCol, mStart[w] % nCol);
+        Point end = new Point(start.x + last * X_DELTA[o], start.y + last * Y_DELTA[o]);
+        return new Placement(mWordStrings[w], start, end, o);
+    }
+
+    /**
+     * @return placements in the order the words were given, only a stopped build leaves words out
+     */
+    List<Placement> getPlacements() {
+        List<Placement> placements = new ArrayList<Placement>();
+        for (int w = 0; w < mWords.length; w++)
+            if (mPlaced[w])
+                placements.add(getPlacement(w));
+        return placements;
+    }
+
+    int getEmptyCells() {
+        int empty = 0;
+        for (char c : mGrid)
+            if (c == EMPTY)
+                empty++;
+        return empty;
+    }
+
+    int getBuildFailures() {
+        return mBuildFailures;
+    }
+
+    int getBacktracks() {
+        return mBacktracks;
+    }
+}
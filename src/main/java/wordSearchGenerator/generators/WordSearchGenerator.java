@@ -1,483 +1,297 @@
 package wordSearchGenerator.generators;
 
+import wordSearchGenerator.models.BuildResult;
+import wordSearchGenerator.models.BuildStatus;
+import wordSearchGenerator.models.Difficulty;
+import wordSearchGenerator.models.DifficultyStats;
 import wordSearchGenerator.models.FillType;
-import wordSearchGenerator.models.Node;
+import wordSearchGenerator.models.GenerationStats;
+import wordSearchGenerator.models.Placement;
+import wordSearchGenerator.models.PlacementRanking;
 import wordSearchGenerator.models.Point;
-import wordSearchGenerator.models.PossibleInstance;
+import wordSearchGenerator.models.Puzzle;
 
+import java.util.AbstractList;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
-import java.util.Random;
+import java.util.concurrent.TimeUnit;
 
 public class WordSearchGenerator {
-    private Character[] mFillChars;
     private String mWord;
+    /**
+     * Read only view of the words of the engine's profile, follows setWords
+     */
+    private final List<String> mWords = new AbstractList<String>() {
+        @Override
+        public String get(int index) {
+            return mEngine.getProfile().words[index];
+        }
+
+        @Override
+        public int size() {
+            return mEngine.getProfile().words.length;
+        }
+    };
     private int nRow;
     private int nCol;
-    private Node[][] mWordSearchNodeMatrix;
+    private WordSearchEngine mEngine;
     private char[][] mWordSearchCharMatrix;
-    private Random mRandom = new Random();
-    private Point mRandomPoint;
-    private Integer mRandomOrientation;
-    private int mBuildFailures = 0;
 
     public static final int RIGHT = 0, RIGHTDOWN = 1, DOWN = 2, LEFTDOWN = 3, LEFT = 4, LEFTUP = 5, UP = 6, RIGHTUP = 7;
-    private static final Character[] alphabet =
+    private static final char[] alphabet =
             {'a', 'b', 'c', 'd', 'e', 'f', 'g', 'h', 'i', 'j', 'k', 'l', 'm', 'n', 'o', 'p', 'q', 'r', 's', 't', 'u', 'v', 'w', 'x', 'y', 'z'};
 
 
     public WordSearchGenerator(int nRow, int nCol, String mWord, FillType type) {
+        this(nRow, nCol, Collections.singletonList(mWord), type);
+    }
+
+    /**
+     * Inserts one instance of every word, no word will appear anywhere else in the grid
+     *
+     * @throws IllegalArgumentException if a word contains another one forwards or backwards
+     */
+    public WordSearchGenerator(int nRow, int nCol, List<String> words, FillType type) {
         this.nRow = nRow;
         this.nCol = nCol;
-        this.mWord = mWord;
+        this.mWord = words.isEmpty() ? null : words.get(0);
 
-        this.mWordSearchNodeMatrix = new Node[nRow][nCol];
         this.mWordSearchCharMatrix = new char[nRow][nCol];
-        if (type == FillType.CharactersOfTheWord)
-            this.mFillChars = StringUtils.getDistinctCharacters(mWord);
-        else
-            this.mFillChars = alphabet;
-        initializeWordSearch();
+        this.mEngine = new WordSearchEngine(nRow, nCol, words.toArray(new String[words.size()]), getFillChars(words, type));
     }
 
-    public char[][] build() {
-        while (true) {
-            try {
-                insertWord();
-                fillWordSearch();
-                break;
-            } catch (Exception e) {
-                initializeWordSearch();
-                mBuildFailures++;
-            }
-        }
-        for (int i = 0; i < nRow; i++) {
-            for (int j = 0; j < nCol; j++) {
-                mWordSearchCharMatrix[i][j] = mWordSearchNodeMatrix[i][j].getLetter();
-            }
-        }
-        return mWordSearchCharMatrix;
+    /**
+     * For CharactersOfTheWord the fill characters are the distinct characters of all the words
+     */
+    static char[] getFillChars(List<String> words, FillType type) {
+        if (type != FillType.CharactersOfTheWord)
+            return alphabet;
+        return StringUtils.getDistinctChars(words.toArray(new String[words.size()]));
     }
 
-    public void print() {
-        for (int i = 0; i < nRow; i++) {
-            for (int j = 0; j < nCol; j++) {
-                System.out.print(mWordSearchNodeMatrix[i][j].getLetter());
-            }
-            System.out.println();
-        }
-        System.out.println();
+    /**
+     * Backtracking is off by default. With it on, a cell that no character fits in clears the letters
+     * on the lines through it and fills them again, instead of build() starting over from an empty grid
+     */
+    public void setBacktracking(boolean backtracking) {
+        mEngine.setBacktracking(backtracking);
     }
 
-    public List<Point> getStartAndEndPointOfWord() {
-        List<Point> points = new ArrayList<Point>();
-        points.add(mRandomPoint);
-        Point endPoint = getRelativePoint(mRandomOrientation, mRandomPoint, mWord.length() - 1);
-        points.add(endPoint);
-        return points;
+    /**
+     * Random by default. Ranking looks through every slot a word fits in for each word,
+     * slower on large grids but lets multi word layouts favour overlaps or a mix of orientations
+     */
+    public void setPlacementRanking(PlacementRanking ranking) {
+        mEngine.setPlacementRanking(ranking);
     }
 
-    private void initializeWordSearch() {
-        for (int i = 0; i < nRow; i++)
-            for (int j = 0; j < nCol; j++)
-                mWordSearchNodeMatrix[i][j] = new Node();
+    /**
+     * Uses the given source for every following build, for example one split off a shared source per worker
+     */
+    public void setRandom(RandomSource random) {
+        mEngine.setRandom(random);
     }
 
-// -------------- LETTER INSERTION ALGORITHM METHODS --------------------//
+    /**
+     * The next build() gives the same grid for the same seed, size, words and fill type
+     */
+    public void setSeed(long seed) {
+        mEngine.setRandom(new Xoshiro128PlusPlus(seed));
+    }
 
     /**
-     * Manages general loop logic for letter insertion into the word search
+     * Metrics are off by default, with them off a build only pays a null check per counter
      *
-     * @throws Exception
+     * @param enabled turning them on starts getStats() from zero
      */
-    private void fillWordSearch() throws Exception {
-        for (int i = 0; i < nRow; i++) {
-            for (int j = 0; j < nCol; j++) {
-                Node n = mWordSearchNodeMatrix[i][j];
-                // Word isn't empty if that letter is part of the inserted word to be found
-                if (!n.isEmpty()) continue;
-                Point currentPoint = new Point(i, j);
-                DistinctRandomGenerator charGenerator = new DistinctRandomGenerator(mFillChars);
-                // Generate random character from unique chars
-                Character candidate = (Character) charGenerator.next();
-                while (candidate != null) {
-
-                    // If the first or last character, continue
-                    if (candidate == mWord.charAt(0) || candidate == mWord.charAt(mWord.length() - 1)) {
-                        if (areAllOrientationsValid(candidate, currentPoint))
-                            break;
-                    } else if (arePossibleInstancesSatisfied(candidate, currentPoint)) break;
-
-                    // Characters violate constraints, get the next unique character
-                    candidate = (Character) charGenerator.next();
-
-                    // No character satisfies the constraints
-                    if (candidate == null) throw new Exception("Random Char generator returned null");
-                }
-                n.setLetter(candidate);
-            }
-        }
+    public void setMetricsEnabled(boolean enabled) {
+        mEngine.setMetricsEnabled(enabled);
     }
 
-    private boolean areAllOrientationsValid(char candidate, Point p) {
-        int nOrientations = 8;
-        for (int o = 0; o < nOrientations; o++) {
-            String s = getStringByOrientation(o, p);
-            if (s == null) continue;
-            s = "" + candidate + s;
-
-            if (mWord.equals(s) || mWord.equals(StringUtils.reverse(s))) return false;
-
-            if (isChanceOfPossibleInstance(s)) {
-                // index of first '0', we will set this node to have a possible instance
-                for (int i = 0; i < s.length(); i++) {
-                    if (s.charAt(i) == '0') {
-                        validateAndSetPossibleInstance(p, i, o, false);
-                        break;
-                    } else if (s.charAt(i) != mWord.charAt(i)) {
-                        break;
-                    }
-                }
-
-                // Compare with the reverse and see if there's a chance
-                for (int i = 0; i < s.length(); i++) {
-                    if (s.charAt(i) == '0') {
-                        validateAndSetPossibleInstance(p, i, o, true);
-                        break;
-                    } else if (s.charAt(i) != mWord.charAt(s.length() - 1 - i)) {
-                        break;
-                    }
-                }
-            }
-        }
-        return true;
+    /**
+     * Receives the stats of every following build, setting a listener turns metrics on
+     */
+    public void setGenerationListener(GenerationListener listener) {
+        mEngine.setListener(listener);
     }
 
     /**
-     * Detects if there is a chance we can have another instance of a string
-     * Ex. If word is easy
-     * and we find a string such as ea0y, e0sy or e00y
-     * We want to create a flag which tells the generator
-     * there is a chance of creating another instance of that word
-     * e000 there is no possible instance needed because will check the 4th position
-     * if there is a last character and invalidate it
-     *
-     * @param s
-     * @return if there is a possible instance
+     * @return totals of every build since metrics were turned on or reset, null if metrics are off
      */
-    private boolean isChanceOfPossibleInstance(String s) {
-        if (s.length() != mWord.length()) return false;
-        for (int i = 0; i < s.length(); i++)
-            if (s.charAt(i) != mWord.charAt(i) && s.charAt(i) != '0')
-                return false;
-
+    public GenerationStats getStats() {
+        return mEngine.getStats();
+    }
 
-        int matches0 = org.apache.commons.lang3.StringUtils.countMatches(s, "0");
-        // if 1 '0' and it's at beginning or end areAllOrientationsValid will check it
-        if (matches0 == 1 && (s.charAt(0) == '0' || s.charAt(mWord.length() - 1) == '0'))
-            return false;
-        // If all but 1 character is '0' no possible chance because we check all orientation when at first or last character
-        // also if there are no '0' there can't be a chance because no open spaces in to insert a character
-        return s.length() - matches0 != 1 && matches0 != 0;
+    public void resetStats() {
+        mEngine.resetStats();
     }
 
     /**
-     * Next node which is current point incremented by position by relative orientation
-     * holds the possibleInstance
-     *
-     * @param point       current point
-     * @param position    to set in possible instance
-     * @param orientation
-     * @return
+     * Off by default. With it on the fill counts decoys, lines one letter short of a word, as it goes
+     * and getDifficulty() scores every build without another pass over the grid
      */
-    private void validateAndSetPossibleInstance(Point point, int position, int orientation, boolean isReversed) {
-        // Will be covered by other IsAllOrientationsValid
-        if (position >= mWord.length() - 1) return;
-
-        Point relativePoint = getRelativePoint(orientation, point, position);
-        Node relativeNode = mWordSearchNodeMatrix[relativePoint.x][relativePoint.y];
-
-        // There exists a character already, can't write a character here
-        if (!relativeNode.isEmpty()) return;
-
-        PossibleInstance pi = new PossibleInstance(orientation, isReversed, position);
-        relativeNode.addToPossibleInstances(pi);
+    public void setDifficultyTracking(boolean enabled) {
+        mEngine.setDifficultyTracking(enabled);
     }
 
     /**
-     * Word is easy, ex. e00y
-     * If 'a' is valid for 2nd letter
-     * Will assign the possible instance of 2nd letter to 3rd letter to watch out for 's'
-     * Handles reversed when creating possible instance
-     *
-     * @param point of current node of interest
-     * @param delta
-     * @param pi    possible instance to extend
+     * Builds puzzles of the given level from the first try: the words only go in the level's orientations
+     * and the fill picks its letters to make as many decoys as the level calls for.
+     * Turns difficulty tracking on, null goes back to plain generation
      */
-    private void extendPossibleInstance(Point point, int delta, PossibleInstance pi) {
-        Point relativePoint = getRelativePoint(pi.orientation, point, delta + pi.indexInWord);
-        Node relativeNode = mWordSearchNodeMatrix[relativePoint.x][relativePoint.y];
-        if (!relativeNode.isEmpty()) return;
-        PossibleInstance relativePi = new PossibleInstance(pi.orientation, pi.reversed, delta + pi.indexInWord);
-        relativeNode.addToPossibleInstances(relativePi);
+    public void setTargetDifficulty(Difficulty target) {
+        mEngine.setTargetDifficulty(target);
     }
 
     /**
-     * Checks if possible instances are handled
-     *
-     * @param candidate    candidate character
-     * @param currentPoint
-     * @return candidate character is allowed to be set
+     * @return difficulty of the last build, null if tracking is off
      */
-    private boolean arePossibleInstancesSatisfied(char candidate, Point currentPoint) {
-
-        Node current = mWordSearchNodeMatrix[currentPoint.x][currentPoint.y];
-        List<PossibleInstance> possibleInstances = current.getPossibleInstances();
-        if (possibleInstances == null) return true;
-        int wordLength = mWord.length();
-        for (PossibleInstance pi : possibleInstances) {
-
-            // Continue if candidate isn't the character at the position in the Word
-            // ex. easy
-            // current candidate is s for es0y, can continue if not the letter that causes possible instance
-            if ((pi.reversed || mWord.charAt(pi.indexInWord) != candidate) && (!pi.reversed || mWord.charAt(wordLength - 1 - pi.indexInWord) != candidate))
-                continue;
-
-            Point nextPoint = getRelativePoint(pi.orientation, currentPoint, 1);
-            Node next = mWordSearchNodeMatrix[nextPoint.x][nextPoint.y];
-
-            // Next character is empty and next character isn't the end of the word
-            if (next.isEmpty() && pi.indexInWord < wordLength - 2) {
-
-                // ea0y, set possible instance for letter s because not at end of word yet
-                extendPossibleInstance(currentPoint, 1, pi);
-
-                // ex. word is easy
-                // The next character is the end of the word
-                // it would be checked by isAllOrientations Valid
-            } else if (next.isEmpty() && pi.indexInWord >= wordLength - 2) {
-                continue;
-
-                // Next letter isn't empty but isn't the next character in the word.
-                // The string won't match the word anymore, so current letter and possibleInstance is valid, continue on
-            } else if ((!pi.reversed && next.getLetter() != mWord.charAt(pi.indexInWord + 1))
-                    || (pi.reversed && next.getLetter() != mWord.charAt(wordLength - 2 - pi.indexInWord))) {
-                continue;
-
-                // Next letter is equal to the next character in the word
-            } else if ((!pi.reversed && next.getLetter() == mWord.charAt(pi.indexInWord + 1))
-                    || (pi.reversed && next.getLetter() == mWord.charAt(wordLength - 2 - pi.indexInWord))) {
-
-                // The next character is the end of the word
-                if (pi.indexInWord >= wordLength - 2)
-                    return false;
-
-                Point nextNextPoint = getRelativePoint(pi.orientation, nextPoint, 1);
-                Node nextNext = mWordSearchNodeMatrix[nextNextPoint.x][nextNextPoint.y];
-
-                // The next next character will be the end of the word
-                // ex. word is hell
-                // h0l0, isAllValidOrientations would check this
-                if (pi.indexInWord >= wordLength - 3 && nextNext.isEmpty()) {
-                    continue;
-
-                    // h0ll, and candidate was 'e'
-                    // don't allow 'e' if next next is end of word
-                } else if (pi.indexInWord >= wordLength - 3
-                        && ((!pi.reversed && nextNext.getLetter() == mWord.charAt(wordLength - 1)) ||
-                        (pi.reversed && nextNext.getLetter() == mWord.charAt(0)))) {
-                    return false;
-                }
-
-                // Ex Word is hello
-                // h0l00, at index 1 testing 'e'
-                if (nextNext.isEmpty())
-                    extendPossibleInstance(nextPoint, 2, pi);
-            }
-        }
-        current.clearPossibleInstances();
-        return true;
+    public DifficultyStats getDifficulty() {
+        return mEngine.getDifficulty();
     }
 
-
-// -------- INSERTING THE SINGLE INSTANCE OF THE WORD METHODS -------------//
-
-    private void insertWord() throws Exception {
-
-        // Choose random coordinate and orientation
-        DistinctRandomGenerator rOrientation = new DistinctRandomGenerator(8);
-        mRandomPoint = new Point(mRandom.nextInt(nCol), mRandom.nextInt(nRow));
-
-        mRandomOrientation = (Integer) rOrientation.next();
-        while (!isValidOrientationForInsertion(mRandomOrientation, mRandomPoint)) {
-            mRandomOrientation = (Integer) rOrientation.next();
-            if (mRandomOrientation == null)
-                throw new Exception("Random orientation generator returned null");
-        }
-        insertWordWithOrientation(mRandomOrientation, mRandomPoint);
+    /**
+     * Switches to other words for the following builds. The grid, the buffers of this generator and its word profile
+     * are filled again in place wherever their sizes fit. Going through word lists of the same shape on the same grid
+     * size only allocates the constraint table of each letter whose count of places in the words changed
+     *
+     * @throws IllegalArgumentException like the constructor, if there are no words or a word contains another one
+     *                                  forwards or backwards. The generator keeps its words then
+     */
+    public void setWords(List<String> words, FillType type) {
+        WordProfile profile = mEngine.getProfile();
+        boolean ofTheWord = type == FillType.CharactersOfTheWord;
+        if (!sameWords(profile.words, words))
+            profile.load(words, ofTheWord ? Long.SIZE : Integer.MAX_VALUE);
+        mEngine.setWords(profile, ofTheWord ? profile.distinctChars : alphabet);
+        mWord = profile.words[0];
     }
 
-    private void insertWordWithOrientation(int orientation, Point p) {
-        for (int i = 0; i < mWord.length(); i++) {
-            Point relative = getRelativePoint(orientation, p, i);
-            mWordSearchNodeMatrix[relative.x][relative.y].setLetter(mWord.charAt(i));
-        }
+    /**
+     * List.equals without the iterators
+     */
+    private static boolean sameWords(String[] current, List<String> words) {
+        if (current.length != words.size())
+            return false;
+        for (int w = 0; w < current.length; w++)
+            if (!current[w].equals(words.get(w)))
+                return false;
+        return true;
     }
 
-// -------- ORIENTATION METHODS -------------//
-
-
-    private String getStringByOrientation(int orientation, Point p) {
-        switch (orientation) {
-            case RIGHT:
-                return lookRight(p, mWord.length() - 1);
-
-            case RIGHTDOWN:
-                return lookRightDown(p, mWord.length() - 1);
-
-            case DOWN:
-                return lookDown(p, mWord.length() - 1);
-
-            case LEFTDOWN:
-                return lookLeftDown(p, mWord.length() - 1);
-
-            case LEFT:
-                return lookLeft(p, mWord.length() - 1);
-
-            case LEFTUP:
-                return lookLeftUp(p, mWord.length() - 1);
-
-            case UP:
-                return lookUp(p, mWord.length() - 1);
-
-            case RIGHTUP:
-                return lookRightUp(p, mWord.length() - 1);
-
-            default:
-                return null;
-        }
+    public char[][] rebuild(String word, FillType type) {
+        return rebuild(Collections.singletonList(word), type);
     }
 
-    public static Point getRelativePoint(int orientation, Point p, int d) {
-        switch (orientation) {
-            case RIGHT:
-                return new Point(p.x + d, p.y);
-
-            case RIGHTDOWN:
-                return new Point(p.x + d, p.y + d);
-
-            case DOWN:
-                return new Point(p.x, p.y + d);
-
-            case LEFTDOWN:
-                return new Point(p.x - d, p.y + d);
-
-            case LEFT:
-                return new Point(p.x - d, p.y);
-
-            case LEFTUP:
-                return new Point(p.x - d, p.y - d);
-
-            case UP:
-                return new Point(p.x, p.y - d);
-
-            case RIGHTUP:
-                return new Point(p.x + d, p.y - d);
-
-            default:
-                return null;
-        }
+    /**
+     * setWords then build()
+     */
+    public char[][] rebuild(List<String> words, FillType type) {
+        setWords(words, type);
+        return build();
     }
 
-    private boolean isValidOrientationForInsertion(int orientation, Point p) {
-        return getStringByOrientation(orientation, p) != null;
+    /**
+     * @return the generator's own grid, the next build overwrites it. Use buildInto to keep the result
+     * @throws java.util.concurrent.CancellationException if the thread is interrupted while the build starts over
+     */
+    public char[][] build() {
+        mEngine.build();
+        mEngine.copyInto(mWordSearchCharMatrix);
+        return mWordSearchCharMatrix;
     }
 
-
-    private String lookRight(Point p, int d) {
-        if (p.x + d >= nCol)
-            return null;
-        String ret = "";
-        for (int i = 1; i <= d; i++) {
-            ret += mWordSearchNodeMatrix[p.x + i][p.y].getLetter();
-        }
-        return ret;
+    /**
+     * Builds straight into a grid of the caller's, a build allocates nothing
+     *
+     * @param dest nRow arrays of at least nCol characters
+     * @return dest
+     * @throws java.util.concurrent.CancellationException if the thread is interrupted while the build starts over
+     */
+    public char[][] buildInto(char[][] dest) {
+        if (dest.length != nRow)
+            throw new IllegalArgumentException("Expected " + nRow + " rows, got " + dest.length);
+        for (char[] row : dest)
+            if (row.length < nCol)
+                throw new IllegalArgumentException("Row shorter than " + nCol);
+        mEngine.build();
+        mEngine.copyInto(dest);
+        return dest;
     }
 
-    private String lookRightDown(Point p, int d) {
-        if (p.x + d >= nCol || p.y + d >= nCol)
-            return null;
-        String ret = "";
-        for (int i = 1; i <= d; i++) {
-            ret += mWordSearchNodeMatrix[p.x + i][p.y + i].getLetter();
-        }
-        return ret;
+    /**
+     * Builds until the puzzle is done or the token says to stop, whichever comes first
+     */
+    public BuildResult build(CancellationToken token) {
+        return build(token, false);
     }
 
-    private String lookDown(Point p, int d) {
-        if (p.y + d >= nCol)
-            return null;
-        String ret = "";
-        for (int i = 1; i <= d; i++) {
-            ret += mWordSearchNodeMatrix[p.x][p.y + i].getLetter();
+    /**
+     * @param partial if true a stopped build still returns the grid and placements it got to, see BuildResult.puzzle
+     */
+    public BuildResult build(CancellationToken token, boolean partial) {
+        long start = System.nanoTime();
+        int failures = mEngine.getBuildFailures();
+        BuildStatus status = mEngine.build(token);
+        Puzzle puzzle = null;
+        if (status == BuildStatus.Completed || partial) {
+            mEngine.copyInto(mWordSearchCharMatrix);
+            char[][] grid = new char[nRow][];
+            for (int i = 0; i < nRow; i++)
+                grid[i] = mWordSearchCharMatrix[i].clone();
+            puzzle = new Puzzle(grid, mEngine.getPlacements());
         }
-        return ret;
+        return new BuildResult(status, puzzle, mEngine.getBuildFailures() - failures, mEngine.getPlacements().size(),
+                mEngine.getEmptyCells(), System.nanoTime() - start);
     }
 
-    private String lookLeftDown(Point p, int d) {
-        if (p.x - d < 0 || p.y + d >= nCol)
-            return null;
-        String ret = "";
-        for (int i = 1; i <= d; i++) {
-            ret += mWordSearchNodeMatrix[p.x - i][p.y + i].getLetter();
-        }
-        return ret;
+    public BuildResult build(long timeout, TimeUnit unit) {
+        return build(CancellationToken.withTimeout(timeout, unit));
     }
 
-    private String lookLeft(Point p, int d) {
-        if (p.x - d < 0)
-            return null;
-        String ret = "";
-        for (int i = 1; i <= d; i++) {
-            ret += mWordSearchNodeMatrix[p.x - i][p.y].getLetter();
+    public void print() {
+        for (int i = 0; i < nRow; i++) {
+            for (int j = 0; j < nCol; j++) {
+                System.out.print(mEngine.getLetter(i, j));
+            }
+            System.out.println();
         }
-        return ret;
+        System.out.println();
     }
 
-    private String lookLeftUp(Point p, int d) {
-        if (p.x - d < 0 || p.y - d < 0)
-            return null;
-        String ret = "";
-        for (int i = 1; i <= d; i++) {
-            ret += mWordSearchNodeMatrix[p.x - i][p.y - i].getLetter();
-        }
-        return ret;
+    public List<Point> getStartAndEndPointOfWord() {
+        Placement placement = mEngine.getPlacement(0);
+        List<Point> points = new ArrayList<Point>();
+        points.add(placement.start);
+        points.add(placement.end);
+        return points;
     }
 
-    private String lookUp(Point p, int d) {
-        if (p.y - d < 0)
-            return null;
-        String ret = "";
-        for (int i = 1; i <= d; i++) {
-            ret += mWordSearchNodeMatrix[p.x][p.y - i].getLetter();
-        }
-        return ret;
+    /**
+     * @return where each word was inserted, in the order the words were given
+     */
+    public List<Placement> getPlacements() {
+        return mEngine.getPlacements();
     }
 
-    private String lookRightUp(Point p, int d) {
-        if (p.x + d >= nCol || p.y - d < 0)
+    public static Point getRelativePoint(int orientation, Point p, int d) {
+        if (orientation < RIGHT || orientation > RIGHTUP)
             return null;
-        String ret = "";
-        for (int i = 1; i <= d; i++) {
-            ret += mWordSearchNodeMatrix[p.x + i][p.y - i].getLetter();
-        }
-        return ret;
+        return new Point(p.x + d * WordSearchEngine.X_DELTA[orientation], p.y + d * WordSearchEngine.Y_DELTA[orientation]);
     }
 
     public String getWord() {
         return mWord;
     }
 
+    /**
+     * @return read only view of the words, the next setWords changes it. Copy it to keep the words
+     */
+    public List<String> getWords() {
+        return mWords;
+    }
+
     public int getnRow() {
         return nRow;
     }
@@ -486,7 +300,21 @@ public class WordSearchGenerator {
         return nCol;
     }
 
+    /**
+     * @return number of times build() had to start over since this generator was created
+     */
+    public int getBuildFailures() {
+        return mEngine.getBuildFailures();
+    }
+
+    /**
+     * @return number of times a cell cleared its neighbourhood since this generator was created
+     */
+    public int getBacktracks() {
+        return mEngine.getBacktracks();
+    }
+
     public char[][] getWordSearchCharMatrix() {
         return mWordSearchCharMatrix;
     }
-}
\ No newline at end of file
+}
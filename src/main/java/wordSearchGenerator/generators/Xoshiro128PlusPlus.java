@@ -0,0 +1,80 @@
+package wordSearchGenerator.generators;
+
+import java.util.SplittableRandom;
+
+/**
+ * xoshiro128++ by Blackman and Vigna: 128 bits of plain int state, no atomics
+ * and the same sequence for the same seed on every JVM
+ */
+public class Xoshiro128PlusPlus implements RandomSource {
+    private static final SplittableRandom seeds = new SplittableRandom();
+
+    private int s0;
+    private int s1;
+    private int s2;
+    private int s3;
+
+    /**
+     * Seeded differently every time
+     */
+    public Xoshiro128PlusPlus() {
+        this(nextSeed());
+    }
+
+    public Xoshiro128PlusPlus(long seed) {
+        // Expand the seed with splitmix64 so that similar seeds give unrelated states
+        long z = seed;
+        long a = mix(z += 0x9e3779b97f4a7c15L);
+        long b = mix(z + 0x9e3779b97f4a7c15L);
+        s0 = (int) a;
+        s1 = (int) (a >>> 32);
+        s2 = (int) b;
+        s3 = (int) (b >>> 32);
+        if ((s0 | s1 | s2 | s3) == 0)
+            s0 = 1;
+    }
+
+    private static synchronized long nextSeed() {
+        return seeds.nextLong();
+    }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    public int nextInt() {
+        int result = Integer.rotateLeft(s0 + s3, 7) + s0;
+        int t = s1 << 9;
+        s2 ^= s0;
+        s3 ^= s1;
+        s1 ^= s2;
+        s0 ^= s3;
+        s2 ^= t;
+        s3 = Integer.rotateLeft(s3, 11);
+        return result;
+    }
+
+    /**
+     * Lemire's multiply and shift, unbiased and usually without a division
+     */
+    public int nextInt(int bound) {
+        if (bound <= 0)
+            throw new IllegalArgumentException("bound must be positive");
+        long m = (nextInt() & 0xffffffffL) * bound;
+        long low = m & 0xffffffffL;
+        if (low < bound) {
+            long threshold = (0x100000000L - bound) % bound;
+            while (low < threshold) {
+                m = (nextInt() & 0xffffffffL) * bound;
+                low = m & 0xffffffffL;
+            }
+        }
+        return (int) (m >>> 32);
+    }
+
+    public RandomSource split() {
+        return new Xoshiro128PlusPlus((long) nextInt() << 32 ^ (nextInt() & 0xffffffffL));
+    }
+}
@@ -0,0 +1,85 @@
+package wordSearchGenerator.io;
+
+import wordSearchGenerator.generators.WordSearchGenerator;
+import wordSearchGenerator.models.Placement;
+import wordSearchGenerator.models.Point;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One puzzle record read in place, letters are decoded from the buffer on every access
+ */
+public class MappedPuzzle {
+    private final ByteBuffer mBuffer;
+    private final int nRow;
+    private final int nCol;
+    private final char[] mAlphabet;
+    private final int mPlacementsOffset;
+    private final int mLettersOffset;
+
+    MappedPuzzle(ByteBuffer buffer) {
+        mBuffer = buffer;
+        nRow = buffer.getInt(8);
+        nCol = buffer.getInt(12);
+        int position = 16;
+        mAlphabet = new char[buffer.get(position++) & 0xff];
+        for (int i = 0; i < mAlphabet.length; i++, position += 2)
+            mAlphabet[i] = buffer.getChar(position);
+        mPlacementsOffset = position;
+        int nPlacements = buffer.getShort(position) & 0xffff;
+        position += 2;
+        for (int i = 0; i < nPlacements; i++)
+            position += 2 + 2 * (buffer.getShort(position) & 0xffff) + 4 + 4 + 1;
+        mLettersOffset = position;
+    }
+
+    public int getnRow() {
+        return nRow;
+    }
+
+    public int getnCol() {
+        return nCol;
+    }
+
+    public char getLetter(int x, int y) {
+        return mAlphabet[PuzzleFormat.getLetter(mBuffer, mLettersOffset, (long) x * nCol + y)];
+    }
+
+    /**
+     * Copies one row into dest, for callers that want the letters on the heap after all
+     */
+    public void getRow(int x, char[] dest) {
+        long cell = (long) x * nCol;
+        for (int y = 0; y < nCol; y++)
+            dest[y] = mAlphabet[PuzzleFormat.getLetter(mBuffer, mLettersOffset, cell + y)];
+    }
+
+    public char[][] toCharMatrix() {
+        char[][] grid = new char[nRow][nCol];
+        for (int x = 0; x < nRow; x++)
+            getRow(x, grid[x]);
+        return grid;
+    }
+
+    public List<Placement> getPlacements() {
+        int position = mPlacementsOffset;
+        int nPlacements = mBuffer.getShort(position) & 0xffff;
+        position += 2;
+        List<Placement> placements = new ArrayList<Placement>(nPlacements);
+        for (int i = 0; i < nPlacements; i++) {
+            int length = mBuffer.getShort(position) & 0xffff;
+            position += 2;
+            char[] word = new char[length];
+            for (int j = 0; j < length; j++, position += 2)
+                word[j] = mBuffer.getChar(position);
+            Point start = new Point(mBuffer.getInt(position), mBuffer.getInt(position + 4));
+            int orientation = mBuffer.get(position + 8);
+            position += 9;
+            Point end = WordSearchGenerator.getRelativePoint(orientation, start, length - 1);
+            placements.add(new Placement(new String(word), start, end, orientation));
+        }
+        return placements;
+    }
+}
@@ -0,0 +1,66 @@
+package wordSearchGenerator.io;
+
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+
+/**
+ * Layout of one puzzle record, all numbers big endian:
+ * <pre>
+ * int    magic 'WSG1'
+ * int    record length in bytes, including magic and length
+ * int    nRow
+ * int    nCol
+ * byte   alphabet size n, at most 32
+ * char[] n alphabet characters
+ * short  number of placements, unsigned
+ *        per placement: short word length, unsigned, char[] word, int start x, int start y, byte orientation
+ * byte[] letters, cell x * nCol + y at bits [5 * cell, 5 * cell + 5) as an index into the alphabet,
+ *        plus one byte of padding so every cell can be read with one two byte load
+ * </pre>
+ * Records are written one after the other to make an archive.
+ */
+class PuzzleFormat {
+    static final int MAGIC = 0x57534731;
+    static final int BITS_PER_CELL = 5;
+    static final int MAX_ALPHABET = 1 << BITS_PER_CELL;
+    /**
+     * Largest placement count and word length, both unsigned shorts
+     */
+    static final int MAX_SHORT = 0xffff;
+
+    static int lettersLength(int nRow, int nCol) {
+        long bits = (long) nRow * nCol * BITS_PER_CELL;
+        long bytes = (bits + 7) / 8 + 1;
+        if (bytes > Integer.MAX_VALUE)
+            throw new IllegalArgumentException("Puzzle too large for one record");
+        return (int) bytes;
+    }
+
+    /**
+     * @return length bytes of buffer from offset on, as a buffer of their own starting at 0
+     */
+    static ByteBuffer slice(ByteBuffer buffer, int offset, int length) {
+        ByteBuffer b = buffer.duplicate();
+        // Through Buffer, ByteBuffer only overrides position and limit from JDK 9 on
+        ((Buffer) b).position(offset);
+        ((Buffer) b).limit(offset + length);
+        return b.slice();
+    }
+
+    static void putLetter(ByteBuffer b, int lettersOffset, long cell, int value) {
+        long bit = cell * BITS_PER_CELL;
+        int i = lettersOffset + (int) (bit >>> 3);
+        int shift = 11 - (int) (bit & 7);
+        int word = (b.get(i) & 0xff) << 8 | (b.get(i + 1) & 0xff);
+        word = word & ~(0x1f << shift) | value << shift;
+        b.put(i, (byte) (word >>> 8));
+        b.put(i + 1, (byte) word);
+    }
+
+    static int getLetter(ByteBuffer b, int lettersOffset, long cell) {
+        long bit = cell * BITS_PER_CELL;
+        int i = lettersOffset + (int) (bit >>> 3);
+        int shift = 11 - (int) (bit & 7);
+        return (b.getShort(i) & 0xffff) >>> shift & 0x1f;
+    }
+}
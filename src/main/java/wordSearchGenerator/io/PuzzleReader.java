@@ -0,0 +1,68 @@
+package wordSearchGenerator.io;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.NoSuchElementException;
+
+/**
+ * Reads the puzzles of an archive in order, each one a slice of a memory mapped window of the file.
+ * The window is remapped further along when the next record runs past it, so an archive takes
+ * a mapping per maxWindow bytes rather than one per puzzle
+ */
+public class PuzzleReader {
+    private final FileChannel mChannel;
+    private final int mMaxWindow;
+    private MappedByteBuffer mWindow;
+    /**
+     * File position of the window's first byte
+     */
+    private long mWindowStart;
+    private long mPosition = 0;
+
+    public PuzzleReader(FileChannel channel) {
+        this(channel, PuzzleWriter.MAX_WINDOW);
+    }
+
+    PuzzleReader(FileChannel channel, int maxWindow) {
+        mChannel = channel;
+        mMaxWindow = maxWindow;
+    }
+
+    public boolean hasNext() throws IOException {
+        // The window never runs past the end of the file, only past it is the size worth asking for
+        return mWindow != null && mPosition < mWindowStart + mWindow.capacity() || mPosition < mChannel.size();
+    }
+
+    /**
+     * @throws IOException if the next record isn't a puzzle
+     */
+    public MappedPuzzle next() throws IOException {
+        if (!hasNext())
+            throw new NoSuchElementException();
+        map(8);
+        int offset = (int) (mPosition - mWindowStart);
+        if (mWindow.getInt(offset) != PuzzleFormat.MAGIC)
+            throw new IOException("Not a puzzle record at " + mPosition);
+        int length = mWindow.getInt(offset + 4);
+        if (length < 8)
+            throw new IOException("Bad record length " + length + " at " + mPosition);
+        map(length);
+        MappedPuzzle puzzle = new MappedPuzzle(PuzzleFormat.slice(mWindow, (int) (mPosition - mWindowStart), length));
+        mPosition += length;
+        return puzzle;
+    }
+
+    /**
+     * Remaps the window at the current position if the next length bytes aren't in it
+     */
+    private void map(int length) throws IOException {
+        if (mWindow != null && mPosition + length <= mWindowStart + mWindow.capacity())
+            return;
+        long left = mChannel.size() - mPosition;
+        if (left < length)
+            throw new IOException("Truncated record at " + mPosition);
+        mWindow = mChannel.map(FileChannel.MapMode.READ_ONLY, mPosition, Math.min(left, Math.max(mMaxWindow, length)));
+        mWindowStart = mPosition;
+    }
+}
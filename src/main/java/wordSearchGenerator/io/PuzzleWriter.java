@@ -0,0 +1,190 @@
+package wordSearchGenerator.io;
+
+import wordSearchGenerator.models.Placement;
+import wordSearchGenerator.models.Puzzle;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Appends puzzles to a file in the PuzzleFormat layout through a memory mapped window past the end of the file.
+ * The window doubles every time it's used up, up to maxWindow, so an archive takes a few mappings however many
+ * puzzles it holds. Mapping past the end grows the file, close() cuts it back to the puzzles written.
+ * <p>
+ * A mapping is only let go of at GC. Callers writing many files can give each writer the same heap buffer instead,
+ * the puzzles are then written through it with FileChannel.write and nothing is mapped
+ */
+public class PuzzleWriter implements Closeable {
+    static final int MIN_WINDOW = 1 << 16;
+    static final int MAX_WINDOW = 1 << 26;
+
+    private final FileChannel mChannel;
+    private final int mMaxWindow;
+    private MappedByteBuffer mWindow;
+    /**
+     * Null unless writing through a heap buffer
+     */
+    private ByteBuffer mBuffer;
+    /**
+     * File position of the window's or buffer's first byte
+     */
+    private long mWindowStart;
+    private long mPosition;
+
+    /**
+     * @param channel opened for reading and writing, puzzles are appended at its current size
+     */
+    public PuzzleWriter(FileChannel channel) throws IOException {
+        this(channel, MAX_WINDOW);
+    }
+
+    PuzzleWriter(FileChannel channel, int maxWindow) throws IOException {
+        mChannel = channel;
+        mMaxWindow = maxWindow;
+        mPosition = channel.size();
+    }
+
+    /**
+     * Writes through buffer rather than a mapping, flushing it whenever it's full.
+     * The buffer can be handed from one writer to the next once the first is closed
+     *
+     * @param buffer a heap buffer, replaced by a bigger one for a puzzle that doesn't fit in it
+     */
+    public PuzzleWriter(FileChannel channel, ByteBuffer buffer) throws IOException {
+        this(channel, MAX_WINDOW);
+        mBuffer = buffer;
+        mWindowStart = mPosition;
+    }
+
+    public void write(Puzzle puzzle) throws IOException {
+        write(puzzle.grid, puzzle.placements);
+    }
+
+    /**
+     * @throws IllegalArgumentException if the grid uses more than 32 different characters,
+     * or there are more placements or a longer word than an unsigned short holds
+     */
+    public void write(char[][] grid, List<Placement> placements) throws IOException {
+        int nRow = grid.length;
+        int nCol = nRow == 0 ? 0 : grid[0].length;
+        char[] alphabet = alphabetOf(grid);
+        int[] index = new int[alphabet.length == 0 ? 0 : alphabet[alphabet.length - 1] + 1];
+        for (int i = 0; i < alphabet.length; i++)
+            index[alphabet[i]] = i;
+
+        if (placements.size() > PuzzleFormat.MAX_SHORT)
+            throw new IllegalArgumentException("More than " + PuzzleFormat.MAX_SHORT + " placements");
+        long length = 4 + 4 + 4 + 4 + 1 + 2 * alphabet.length + 2;
+        for (Placement p : placements) {
+            if (p.word.length() > PuzzleFormat.MAX_SHORT)
+                throw new IllegalArgumentException("Word longer than " + PuzzleFormat.MAX_SHORT + " letters");
+            length += 2 + 2 * p.word.length() + 4 + 4 + 1;
+        }
+        int lettersOffset = (int) length;
+        length += PuzzleFormat.lettersLength(nRow, nCol);
+        if (length > Integer.MAX_VALUE)
+            throw new IllegalArgumentException("Puzzle too large for one record");
+
+        ByteBuffer b = reserve((int) length);
+        b.putInt(PuzzleFormat.MAGIC);
+        b.putInt((int) length);
+        b.putInt(nRow);
+        b.putInt(nCol);
+        b.put((byte) alphabet.length);
+        for (char c : alphabet)
+            b.putChar(c);
+        b.putShort((short) placements.size());
+        for (Placement p : placements) {
+            b.putShort((short) p.word.length());
+            for (int i = 0; i < p.word.length(); i++)
+                b.putChar(p.word.charAt(i));
+            b.putInt(p.start.x);
+            b.putInt(p.start.y);
+            b.put((byte) p.orientation);
+        }
+        // putLetter keeps the bits around each letter, a heap buffer holds whatever was written last
+        for (int i = lettersOffset; i < length; i++)
+            b.put(i, (byte) 0);
+        long cell = 0;
+        for (char[] row : grid)
+            for (char c : row)
+                PuzzleFormat.putLetter(b, lettersOffset, cell++, index[c]);
+        mPosition += length;
+    }
+
+    /**
+     * @return the next length bytes of the window as a buffer of their own, the window remapped if they don't fit
+     */
+    private ByteBuffer reserve(int length) throws IOException {
+        if (mBuffer != null) {
+            if (mPosition + length > mWindowStart + mBuffer.capacity()) {
+                flush();
+                if (length > mBuffer.capacity())
+                    mBuffer = ByteBuffer.allocate(length);
+            }
+            return PuzzleFormat.slice(mBuffer, (int) (mPosition - mWindowStart), length);
+        }
+        if (mWindow == null || mPosition + length > mWindowStart + mWindow.capacity()) {
+            int size = mWindow == null ? Math.min(MIN_WINDOW, mMaxWindow) : (int) Math.min(mMaxWindow, 2L * mWindow.capacity());
+            mWindow = mChannel.map(FileChannel.MapMode.READ_WRITE, mPosition, Math.max(size, length));
+            mWindowStart = mPosition;
+        }
+        return PuzzleFormat.slice(mWindow, (int) (mPosition - mWindowStart), length);
+    }
+
+    /**
+     * Cuts the file back to the puzzles written and writes them to the storage device
+     */
+    public void force() throws IOException {
+        truncate();
+        mChannel.force(false);
+    }
+
+    /**
+     * Cuts the file back to the puzzles written and closes the channel
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            truncate();
+        } finally {
+            mChannel.close();
+        }
+    }
+
+    /**
+     * Writes out the puzzles in the heap buffer
+     */
+    private void flush() throws IOException {
+        ByteBuffer b = PuzzleFormat.slice(mBuffer, 0, (int) (mPosition - mWindowStart));
+        while (b.hasRemaining())
+            mWindowStart += mChannel.write(b, mWindowStart);
+    }
+
+    private void truncate() throws IOException {
+        if (mBuffer != null)
+            flush();
+        // The window covers what's cut off, the next write maps a new one
+        mWindow = null;
+        if (mChannel.size() > mPosition)
+            mChannel.truncate(mPosition);
+    }
+
+    private static char[] alphabetOf(char[][] grid) {
+        BitSet seen = new BitSet();
+        for (char[] row : grid)
+            for (char c : row)
+                seen.set(c);
+        if (seen.cardinality() > PuzzleFormat.MAX_ALPHABET)
+            throw new IllegalArgumentException("More than " + PuzzleFormat.MAX_ALPHABET + " different characters");
+        char[] alphabet = new char[seen.cardinality()];
+        for (int i = 0, c = seen.nextSetBit(0); c >= 0; i++, c = seen.nextSetBit(c + 1))
+            alphabet[i] = (char) c;
+        return alphabet;
+    }
+}
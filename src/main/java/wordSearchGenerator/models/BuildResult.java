@@ -0,0 +1,42 @@
+package wordSearchGenerator.models;
+
+/**
+ * Outcome of a build that can be cancelled or run out of time
+ */
+public class BuildResult {
+    public final BuildStatus status;
+    /**
+     * The finished puzzle, or with a partial result asked for, the grid as it was when the build stopped.
+     * Cells not filled yet hold '0' and only the words inserted so far are in its placements. Null otherwise
+     */
+    public final Puzzle puzzle;
+    /**
+     * Times the build started over before it finished or stopped
+     */
+    public final int retries;
+    /**
+     * Words inserted and cells still empty when the build finished or stopped
+     */
+    public final int placedWords;
+    public final int emptyCells;
+    public final long elapsedNanos;
+
+    public BuildResult(BuildStatus status, Puzzle puzzle, int retries, int placedWords, int emptyCells, long elapsedNanos) {
+        this.status = status;
+        this.puzzle = puzzle;
+        this.retries = retries;
+        this.placedWords = placedWords;
+        this.emptyCells = emptyCells;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public boolean isCompleted() {
+        return status == BuildStatus.Completed;
+    }
+
+    @Override
+    public String toString() {
+        return "BuildResult{status=" + status + ", retries=" + retries + ", placedWords=" + placedWords
+                + ", emptyCells=" + emptyCells + ", elapsedNanos=" + elapsedNanos + "}";
+    }
+}
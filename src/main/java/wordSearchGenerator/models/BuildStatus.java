@@ -0,0 +1,3 @@
+package wordSearchGenerator.models;
+
+public enum BuildStatus {Completed, Cancelled, DeadlineExceeded}
@@ -0,0 +1,40 @@
+package wordSearchGenerator.models;
+
+/**
+ * Difficulty levels, each a band of DifficultyStats.score and the orientations its words may read in.
+ * Easy words only read right or down, Medium adds the two downward diagonals, Hard allows every orientation
+ */
+public enum Difficulty {
+    Easy(0, 0.2, 0.1, 1 << 0 | 1 << 2),
+    Medium(0.2, 0.45, 0.32, 0x0f),
+    Hard(0.45, 1, 0.6, 0xff);
+
+    public final double minScore;
+    public final double maxScore;
+    /**
+     * Score a target difficulty build aims for, well inside the band
+     */
+    public final double targetScore;
+    /**
+     * Bit o is set if words may be inserted with orientation o
+     */
+    public final int orientations;
+
+    Difficulty(double minScore, double maxScore, double targetScore, int orientations) {
+        this.minScore = minScore;
+        this.maxScore = maxScore;
+        this.targetScore = targetScore;
+        this.orientations = orientations;
+    }
+
+    public boolean contains(double score) {
+        return score >= minScore && (score < maxScore || this == Hard);
+    }
+
+    public static Difficulty of(double score) {
+        for (Difficulty d : values())
+            if (d.contains(score))
+                return d;
+        return Easy;
+    }
+}
@@ -0,0 +1,84 @@
+package wordSearchGenerator.models;
+
+/**
+ * How hard a puzzle is to solve. A decoy is a line that spells a word, forwards or backwards,
+ * in all but one letter, the near misses that slow a solver down.
+ * The score goes from 0 to 1, weighing the decoy rate the most, then words read backwards,
+ * diagonal words and the number of different orientations used
+ */
+public class DifficultyStats {
+    static final double DECOY_WEIGHT = 0.5;
+    static final double REVERSED_WEIGHT = 0.2;
+    static final double DIAGONAL_WEIGHT = 0.15;
+    static final double MIX_WEIGHT = 0.15;
+    /**
+     * Decoy rate that scores half of DECOY_WEIGHT
+     */
+    static final double HALF_RATE = 1;
+
+    public final int cells;
+    public final int words;
+    public final int decoys;
+    /**
+     * Words read left, up or up a diagonal, orientations 4 to 7
+     */
+    public final int reversedPlacements;
+    public final int diagonalPlacements;
+    /**
+     * Different orientations the words were inserted with
+     */
+    public final int orientationsUsed;
+    public final double score;
+
+    public DifficultyStats(int cells, int words, int decoys, int reversedPlacements, int diagonalPlacements,
+                           int orientationsUsed) {
+        this.cells = cells;
+        this.words = words;
+        this.decoys = decoys;
+        this.reversedPlacements = reversedPlacements;
+        this.diagonalPlacements = diagonalPlacements;
+        this.orientationsUsed = orientationsUsed;
+        this.score = placementScore(words, reversedPlacements, diagonalPlacements, orientationsUsed)
+                + decoyScore(getDecoyRate());
+    }
+
+    /**
+     * @return the part of the score the placements decide before any letter is filled
+     */
+    static double placementScore(int words, int reversed, int diagonal, int orientationsUsed) {
+        if (words == 0)
+            return 0;
+        return REVERSED_WEIGHT * reversed / words + DIAGONAL_WEIGHT * diagonal / words
+                + MIX_WEIGHT * Math.max(0, orientationsUsed - 1) / 7;
+    }
+
+    static double decoyScore(double rate) {
+        return DECOY_WEIGHT * rate / (rate + HALF_RATE);
+    }
+
+    /**
+     * @return decoys that bring a puzzle with the given placement score to the score
+     */
+    public static double decoysFor(double score, double placementScore, int cells, int words) {
+        double part = Math.min(0.97, Math.max(0, score - placementScore) / DECOY_WEIGHT);
+        return HALF_RATE * part / (1 - part) * words * cells / 100;
+    }
+
+    /**
+     * @return decoys per word per hundred cells, comparable across grid sizes and word counts
+     */
+    public double getDecoyRate() {
+        return words == 0 || cells == 0 ? 0 : 100.0 * decoys / words / cells;
+    }
+
+    public Difficulty getLevel() {
+        return Difficulty.of(score);
+    }
+
+    @Override
+    public String toString() {
+        return "DifficultyStats{cells=" + cells + ", words=" + words + ", decoys=" + decoys
+                + ", reversedPlacements=" + reversedPlacements + ", diagonalPlacements=" + diagonalPlacements + ", orientationsUsed=" + orientationsUsed
+                + ", score=" + score + "}";
+    }
+}
@@ -0,0 +1,3 @@
+package wordSearchGenerator.models;
+
+public enum Feasibility {Feasible, Risky, Infeasible}
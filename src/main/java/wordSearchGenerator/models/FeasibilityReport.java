@@ -0,0 +1,29 @@
+package wordSearchGenerator.models;
+
+import java.util.List;
+
+/**
+ * What a spec is likely to cost before generating it
+ */
+public class FeasibilityReport {
+    public final Feasibility feasibility;
+    /**
+     * Estimated times build() starts over per puzzle, infinite for an infeasible spec, NaN if it wasn't estimated
+     */
+    public final double expectedRetries;
+    /**
+     * Why the spec isn't feasible, empty if it is
+     */
+    public final List<String> reasons;
+
+    public FeasibilityReport(Feasibility feasibility, double expectedRetries, List<String> reasons) {
+        this.feasibility = feasibility;
+        this.expectedRetries = expectedRetries;
+        this.reasons = reasons;
+    }
+
+    @Override
+    public String toString() {
+        return feasibility + " (expected retries " + expectedRetries + ")" + (reasons.isEmpty() ? "" : " " + reasons);
+    }
+}
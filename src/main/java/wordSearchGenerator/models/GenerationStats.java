@@ -0,0 +1,67 @@
+package wordSearchGenerator.models;
+
+/**
+ * Counters and phase timings of one or more builds. Times are in nanoseconds
+ */
+public class GenerationStats {
+    public final long builds;
+    /**
+     * Times a build started over from an empty grid
+     */
+    public final long retries;
+    public final long backtracks;
+    public final long insertNanos;
+    public final long fillNanos;
+    /**
+     * Positions and orientations tried for the words, and how many of them didn't fit
+     */
+    public final long insertAttempts;
+    public final long rejectedInserts;
+    public final long filledCells;
+    /**
+     * Fill characters ruled out at the cells filled, summed over the cells
+     */
+    public final long rejectedCandidates;
+    /**
+     * Cells where every fill character was ruled out
+     */
+    public final long deadCells;
+    /**
+     * Letters ruled out at a cell because a line through it was one letter short of a word
+     */
+    public final long propagations;
+    /**
+     * Sweeps over the whole grid, the expensive part of a retry
+     */
+    public final long gridClears;
+
+    public GenerationStats(long builds, long retries, long backtracks, long insertNanos, long fillNanos,
+                           long insertAttempts, long rejectedInserts, long filledCells, long rejectedCandidates,
+                           long deadCells, long propagations, long gridClears) {
+        this.builds = builds;
+        this.retries = retries;
+        this.backtracks = backtracks;
+        this.insertNanos = insertNanos;
+        this.fillNanos = fillNanos;
+        this.insertAttempts = insertAttempts;
+        this.rejectedInserts = rejectedInserts;
+        this.filledCells = filledCells;
+        this.rejectedCandidates = rejectedCandidates;
+        this.deadCells = deadCells;
+        this.propagations = propagations;
+        this.gridClears = gridClears;
+    }
+
+    public double getRejectedCandidatesPerCell() {
+        return filledCells == 0 ? 0 : (double) rejectedCandidates / filledCells;
+    }
+
+    @Override
+    public String toString() {
+        return "GenerationStats{builds=" + builds + ", retries=" + retries + ", backtracks=" + backtracks
+                + ", insertNanos=" + insertNanos + ", fillNanos=" + fillNanos
+                + ", insertAttempts=" + insertAttempts + ", rejectedInserts=" + rejectedInserts
+                + ", filledCells=" + filledCells + ", rejectedCandidates=" + rejectedCandidates
+                + ", deadCells=" + deadCells + ", propagations=" + propagations + ", gridClears=" + gridClears + "}";
+    }
+}
@@ -0,0 +1,18 @@
+package wordSearchGenerator.models;
+
+/**
+ * Where a word was inserted in a word search
+ */
+public class Placement {
+    public final String word;
+    public final Point start;
+    public final Point end;
+    public final int orientation;
+
+    public Placement(String word, Point start, Point end, int orientation) {
+        this.word = word;
+        this.start = start;
+        this.end = end;
+        this.orientation = orientation;
+    }
+}
@@ -0,0 +1,8 @@
+package wordSearchGenerator.models;
+
+/**
+ * How a word's position is chosen among the slots it fits in.
+ * Random draws uniformly, MostOverlap prefers slots sharing the most letters with words already inserted,
+ * BalanceOrientations prefers the orientations used least so far. Ties are drawn uniformly
+ */
+public enum PlacementRanking {Random, MostOverlap, BalanceOrientations}
@@ -0,0 +1,16 @@
+package wordSearchGenerator.models;
+
+import java.util.List;
+
+/**
+ * A generated word search and the placements of its words
+ */
+public class Puzzle {
+    public final char[][] grid;
+    public final List<Placement> placements;
+
+    public Puzzle(char[][] grid, List<Placement> placements) {
+        this.grid = grid;
+        this.placements = placements;
+    }
+}
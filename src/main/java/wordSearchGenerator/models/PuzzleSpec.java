@@ -0,0 +1,61 @@
+package wordSearchGenerator.models;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Everything needed to generate one word search
+ */
+public class PuzzleSpec {
+    public final int nRow;
+    public final int nCol;
+    public final List<String> words;
+    public final FillType fillType;
+    /**
+     * Same seed and spec give the same puzzle, null for a random puzzle
+     */
+    public final Long seed;
+
+    public PuzzleSpec(int nRow, int nCol, String word, FillType fillType) {
+        this(nRow, nCol, Collections.singletonList(word), fillType);
+    }
+
+    public PuzzleSpec(int nRow, int nCol, List<String> words, FillType fillType) {
+        this(nRow, nCol, words, fillType, null);
+    }
+
+    public PuzzleSpec(int nRow, int nCol, List<String> words, FillType fillType, Long seed) {
+        this.nRow = nRow;
+        this.nCol = nCol;
+        this.words = Collections.unmodifiableList(new ArrayList<String>(words));
+        this.fillType = fillType;
+        this.seed = seed;
+    }
+
+    /**
+     * @return this spec without its seed, everything that decides the size and contents of the generator
+     */
+    public PuzzleSpec withoutSeed() {
+        return seed == null ? this : new PuzzleSpec(nRow, nCol, words, fillType);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (o == null || !(o instanceof PuzzleSpec))
+            return false;
+        PuzzleSpec s = (PuzzleSpec) o;
+        return nRow == s.nRow && nCol == s.nCol && words.equals(s.words) && fillType == s.fillType
+                && (seed == null ? s.seed == null : seed.equals(s.seed));
+    }
+
+    @Override
+    public int hashCode() {
+        int h = nRow;
+        h = 31 * h + nCol;
+        h = 31 * h + words.hashCode();
+        h = 31 * h + fillType.hashCode();
+        h = 31 * h + (seed == null ? 0 : seed.hashCode());
+        return h;
+    }
+}
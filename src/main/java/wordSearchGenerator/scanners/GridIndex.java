@@ -0,0 +1,177 @@
+package wordSearchGenerator.scanners;
+
+import java.util.Arrays;
+
+/**
+ * Read only index of a grid, built once and shared by any number of lookups.
+ * Every letter maps to a bitset of the cells holding it, cell (x, y) being bit x * nCol + y.
+ * Along an orientation the next cell is a fixed step away in that numbering, so shifting a letter's bitset
+ * by i steps lines up every cell with the letter i cells further on. Matching a word in an orientation
+ * is then one AND per letter over 64 cells at a time, see starts(), with no line walked letter by letter.
+ */
+public class GridIndex {
+    /**
+     * Same orientations as the WordSearchGenerator constants RIGHT to RIGHTUP
+     */
+    static final int[] X_DELTA = {1, 1, 0, -1, -1, -1, 0, 1};
+    static final int[] Y_DELTA = {0, 1, 1, 1, 0, -1, -1, -1};
+
+    private final int nRow;
+    private final int nCol;
+    private final char[] mLetters;
+    /**
+     * Dense class per letter in the grid, letters not in the grid are -1
+     */
+    private final int[] mLetterClass;
+    private final long[][] mPositions;
+    /**
+     * Bit index step of each orientation
+     */
+    private final int[] mStep = new int[X_DELTA.length];
+
+    public GridIndex(char[][] grid) {
+        nRow = grid.length;
+        nCol = nRow == 0 ? 0 : grid[0].length;
+        mLetters = new char[nRow * nCol];
+        int maxChar = 0;
+        for (int x = 0; x < nRow; x++) {
+            System.arraycopy(grid[x], 0, mLetters, x * nCol, nCol);
+            for (char c : grid[x])
+                maxChar = Math.max(maxChar, c);
+        }
+        mLetterClass = new int[maxChar + 1];
+        Arrays.fill(mLetterClass, -1);
+        int classes = 0;
+        for (char c : mLetters)
+            if (mLetterClass[c] == -1)
+                mLetterClass[c] = classes++;
+
+        int nWords = (mLetters.length + Long.SIZE - 1) / Long.SIZE;
+        mPositions = new long[classes][nWords];
+        for (int idx = 0; idx < mLetters.length; idx++)
+            mPositions[mLetterClass[mLetters[idx]]][idx >>> 6] |= 1L << idx;
+        for (int o = 0; o < X_DELTA.length; o++)
+            mStep[o] = X_DELTA[o] * nCol + Y_DELTA[o];
+    }
+
+    public int getnRow() {
+        return nRow;
+    }
+
+    public int getnCol() {
+        return nCol;
+    }
+
+    public char getLetter(int x, int y) {
+        return mLetters[x * nCol + y];
+    }
+
+    public boolean inBounds(int x, int y) {
+        return x >= 0 && x < nRow && y >= 0 && y < nCol;
+    }
+
+    public boolean hasLetter(char c, int x, int y) {
+        long[] positions = positions(c);
+        int idx = x * nCol + y;
+        return positions != null && (positions[idx >>> 6] & 1L << idx) != 0;
+    }
+
+    /**
+     * @return number of cells holding c
+     */
+    public int count(char c) {
+        long[] positions = positions(c);
+        if (positions == null) return 0;
+        int n = 0;
+        for (long bits : positions)
+            n += Long.bitCount(bits);
+        return n;
+    }
+
+    /**
+     * @return number of cells from (x, y) to the edge of the grid in the orientation, (x, y) included
+     */
+    public int reach(int x, int y, int orientation) {
+        int dx = X_DELTA[orientation];
+        int dy = Y_DELTA[orientation];
+        int reach = Integer.MAX_VALUE;
+        if (dx > 0) reach = nRow - x;
+        else if (dx < 0) reach = x + 1;
+        if (dy > 0) reach = Math.min(reach, nCol - y);
+        else if (dy < 0) reach = Math.min(reach, y + 1);
+        return reach;
+    }
+
+    /**
+     * Starts from the cells whose line of the word's length stays inside the grid, which also keeps
+     * a shift from wrapping round into the next row, and keeps those that hold the word's i-th letter i steps on
+     *
+     * @param starts reused if it's as long as the bitsets of the index
+     * @return bitset of the cells the word reads from in the orientation
+     */
+    long[] starts(char[] word, int orientation, long[] starts) {
+        int nWords = (mLetters.length + Long.SIZE - 1) / Long.SIZE;
+        if (starts == null || starts.length != nWords)
+            starts = new long[nWords];
+        Arrays.fill(starts, 0);
+        int last = word.length - 1;
+        int dx = X_DELTA[orientation];
+        int dy = Y_DELTA[orientation];
+        int x0 = dx < 0 ? last : 0;
+        int x1 = dx > 0 ? nRow - 1 - last : nRow - 1;
+        int y0 = dy < 0 ? last : 0;
+        int y1 = dy > 0 ? nCol - 1 - last : nCol - 1;
+        long[] first = positions(word[0]);
+        if (first == null || x0 > x1 || y0 > y1)
+            return starts;
+        for (int x = x0; x <= x1; x++)
+            setRange(starts, x * nCol + y0, x * nCol + y1 + 1);
+        for (int j = 0; j < nWords; j++)
+            starts[j] &= first[j];
+        for (int i = 1; i <= last; i++) {
+            long[] letter = positions(word[i]);
+            if (letter == null) {
+                Arrays.fill(starts, 0);
+                return starts;
+            }
+            andShifted(starts, letter, i * mStep[orientation]);
+        }
+        return starts;
+    }
+
+    /**
+     * Sets bits from up to to, exclusive
+     */
+    private static void setRange(long[] bits, int from, int to) {
+        while (from < to) {
+            int end = Math.min(to, (from | (Long.SIZE - 1)) + 1);
+            bits[from >>> 6] |= -1L >>> (Long.SIZE - (end - from)) << from;
+            from = end;
+        }
+    }
+
+    /**
+     * Clears every bit idx of bits whose bit idx + shift of letter isn't set
+     */
+    private static void andShifted(long[] bits, long[] letter, int shift) {
+        int wordShift = shift >> 6;
+        int bitShift = shift & (Long.SIZE - 1);
+        for (int j = 0; j < bits.length; j++) {
+            if (bits[j] == 0) continue;
+            long low = word(letter, j + wordShift);
+            bits[j] &= bitShift == 0 ? low : low >>> bitShift | word(letter, j + wordShift + 1) << (Long.SIZE - bitShift);
+        }
+    }
+
+    private static long word(long[] bits, int j) {
+        return j >= 0 && j < bits.length ? bits[j] : 0;
+    }
+
+    /**
+     * Bitset of the cells holding c, null if none do
+     */
+    long[] positions(char c) {
+        int cls = c < mLetterClass.length ? mLetterClass[c] : -1;
+        return cls == -1 ? null : mPositions[cls];
+    }
+}
@@ -0,0 +1,184 @@
+package wordSearchGenerator.scanners;
+
+import wordSearchGenerator.generators.StringUtils;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.util.List;
+
+/**
+ * Checks that every word appears exactly once in a flat byte grid, cell (x, y) being byte x * nCol + y.
+ * Counts the same way as OccurrenceScanner.count: each word and its reverse along RIGHT, RIGHTDOWN, DOWN
+ * and LEFTDOWN, a palindrome once for each set of cells and a single letter once.
+ * <p>
+ * The words are compared against a whole row of starting cells at a time, letter by letter,
+ * which create() runs on the jdk.incubator.vector API where the JDK has it and the module was added
+ * with --add-modules jdk.incubator.vector, and this scalar version everywhere else.
+ * Words and grids have to be Latin-1, one byte per letter
+ */
+public class GridVerifier {
+    static final int[] X_DELTA = {1, 1, 0, -1};
+    static final int[] Y_DELTA = {0, 1, 1, 1};
+
+    /**
+     * Null if the vector verifier can't run here
+     */
+    private static final Constructor<?> VECTOR_VERIFIER = vectorVerifier();
+
+    final byte[][] mWords;
+    final boolean[] mPalindrome;
+    /**
+     * A byte no word holds, stands for the grid letters toBytes can't fit in a byte
+     */
+    private final byte mNoLetter;
+
+    public GridVerifier(List<String> words) {
+        mWords = new byte[words.size()][];
+        mPalindrome = new boolean[words.size()];
+        boolean[] used = new boolean[256];
+        for (int w = 0; w < mWords.length; w++) {
+            String word = words.get(w);
+            if (word.isEmpty())
+                throw new IllegalArgumentException("Empty word");
+            mWords[w] = new byte[word.length()];
+            for (int i = 0; i < word.length(); i++) {
+                char c = word.charAt(i);
+                if (c > 0xff)
+                    throw new IllegalArgumentException(word + " isn't Latin-1");
+                mWords[w][i] = (byte) c;
+                used[c] = true;
+            }
+            mPalindrome[w] = StringUtils.isPalindrome(word);
+        }
+        int noLetter = 0;
+        while (noLetter < used.length && used[noLetter])
+            noLetter++;
+        if (noLetter == used.length)
+            throw new IllegalArgumentException("The words use every byte");
+        mNoLetter = (byte) noLetter;
+    }
+
+    /**
+     * Looked up reflectively so the library still runs on JDKs without the vector API, like PuzzleServer's executor
+     */
+    private static Constructor<?> vectorVerifier() {
+        try {
+            // Initializing the class resolves the vector species, which fails without the module
+            return Class.forName("wordSearchGenerator.scanners.VectorGridVerifier", true,
+                    GridVerifier.class.getClassLoader()).getConstructor(List.class);
+        } catch (Exception e) {
+            return null;
+        } catch (LinkageError e) {
+            // Compiled for a newer JDK, or jdk.incubator.vector wasn't added
+            return null;
+        }
+    }
+
+    /**
+     * @return the vector verifier if it can run here, this scalar one otherwise
+     */
+    public static GridVerifier create(List<String> words) {
+        if (VECTOR_VERIFIER == null)
+            return new GridVerifier(words);
+        try {
+            return (GridVerifier) VECTOR_VERIFIER.newInstance(words);
+        } catch (InvocationTargetException e) {
+            if (e.getCause() instanceof RuntimeException)
+                throw (RuntimeException) e.getCause();
+            throw new IllegalStateException(e.getCause());
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * @return true if create() gives the vector verifier
+     */
+    public static boolean isVectorAvailable() {
+        return VECTOR_VERIFIER != null;
+    }
+
+    /**
+     * @return true if every word appears exactly once
+     */
+    public boolean verify(byte[] grid, int nRow, int nCol) {
+        for (int count : count(grid, nRow, nCol))
+            if (count != 1)
+                return false;
+        return true;
+    }
+
+    public boolean verify(char[][] grid) {
+        return verify(toBytes(grid), grid.length, grid.length == 0 ? 0 : grid[0].length);
+    }
+
+    /**
+     * @return number of instances of each word, in the order the words were given
+     */
+    public int[] count(byte[] grid, int nRow, int nCol) {
+        if (grid.length < nRow * nCol)
+            throw new IllegalArgumentException("Grid shorter than " + nRow + " x " + nCol);
+        int[] counts = new int[mWords.length];
+        for (int w = 0; w < mWords.length; w++) {
+            int last = mWords[w].length - 1;
+            for (int axis = 0; axis < X_DELTA.length; axis++) {
+                // A single letter is the same on every axis
+                if (last == 0 && axis > 0) break;
+                int xFrom = X_DELTA[axis] < 0 ? last : 0;
+                int xTo = X_DELTA[axis] > 0 ? nRow - last : nRow;
+                int yTo = Y_DELTA[axis] > 0 ? nCol - last : nCol;
+                for (int x = xFrom; x < xTo; x++)
+                    counts[w] += countRow(grid, nCol, w, axis, x, 0, yTo);
+            }
+        }
+        return counts;
+    }
+
+    public int[] count(char[][] grid) {
+        return count(toBytes(grid), grid.length, grid.length == 0 ? 0 : grid[0].length);
+    }
+
+    /**
+     * @return instances of word w, forwards or backwards, along the axis
+     * that start in row x between columns yFrom and yTo
+     */
+    int countRow(byte[] grid, int nCol, int w, int axis, int x, int yFrom, int yTo) {
+        byte[] word = mWords[w];
+        int last = word.length - 1;
+        int step = X_DELTA[axis] * nCol + Y_DELTA[axis];
+        boolean palindrome = mPalindrome[w];
+        int count = 0;
+        for (int y = yFrom, start = x * nCol + yFrom; y < yTo; y++, start++) {
+            byte first = grid[start];
+            if (first == word[0] && matches(grid, start, step, word, false))
+                count++;
+            if (!palindrome && first == word[last] && matches(grid, start, step, word, true))
+                count++;
+        }
+        return count;
+    }
+
+    private static boolean matches(byte[] grid, int start, int step, byte[] word, boolean reversed) {
+        int last = word.length - 1;
+        for (int i = 1, idx = start + step; i <= last; i++, idx += step)
+            if (grid[idx] != word[reversed ? last - i : i])
+                return false;
+        return true;
+    }
+
+    /**
+     * @return the grid as a flat byte grid, letters outside Latin-1 become a byte none of the words holds
+     */
+    public byte[] toBytes(char[][] grid) {
+        int nRow = grid.length;
+        int nCol = nRow == 0 ? 0 : grid[0].length;
+        byte[] bytes = new byte[nRow * nCol];
+        for (int x = 0; x < nRow; x++) {
+            for (int y = 0; y < nCol; y++) {
+                char c = grid[x][y];
+                bytes[x * nCol + y] = c > 0xff ? mNoLetter : (byte) c;
+            }
+        }
+        return bytes;
+    }
+}
@@ -0,0 +1,241 @@
+package wordSearchGenerator.scanners;
+
+import wordSearchGenerator.generators.StringUtils;
+import wordSearchGenerator.generators.WordSearchGenerator;
+import wordSearchGenerator.models.Placement;
+import wordSearchGenerator.models.Point;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Finds every instance of a set of words in a grid with an Aho-Corasick automaton.
+ * The automaton holds each word and its reverse, so walking every line of the grid once
+ * along RIGHT, RIGHTDOWN, DOWN and LEFTDOWN finds the words in all 8 orientations.
+ * A scanner only depends on its words and can be reused for any number of grids.
+ */
+public class OccurrenceScanner {
+    private static final int[] X_DELTA = {1, 1, 0, -1};
+    private static final int[] Y_DELTA = {0, 1, 1, 1};
+
+    private final String[] mWords;
+
+    /**
+     * Dense class index for every character in the words, chars outside it are -1
+     */
+    private final int[] mCharClass;
+    private final int nClasses;
+
+    /**
+     * mTransitions[state * nClasses + class] is the next state, failure links already folded in
+     */
+    private final int[] mTransitions;
+
+    /**
+     * First pattern that ends at a state, -1 if none
+     */
+    private final int[] mOutput;
+
+    /**
+     * Closest state on the failure chain that has an output, -1 if none
+     */
+    private final int[] mOutputLink;
+
+    /**
+     * Patterns that end at the same state are chained through mNextPattern
+     */
+    private final int[] mNextPattern;
+    private final int[] mPatternWord;
+    private final boolean[] mPatternReversed;
+
+    public OccurrenceScanner(List<String> words) {
+        mWords = words.toArray(new String[words.size()]);
+
+        List<String> patterns = new ArrayList<String>();
+        List<Integer> patternWord = new ArrayList<Integer>();
+        List<Boolean> patternReversed = new ArrayList<Boolean>();
+        for (int w = 0; w < mWords.length; w++) {
+            if (mWords[w].isEmpty())
+                throw new IllegalArgumentException("Empty word");
+            patterns.add(mWords[w]);
+            patternWord.add(w);
+            patternReversed.add(false);
+            if (!StringUtils.isPalindrome(mWords[w])) {
+                patterns.add(StringUtils.reverse(mWords[w]));
+                patternWord.add(w);
+                patternReversed.add(true);
+            }
+        }
+        int nPatterns = patterns.size();
+        mPatternWord = new int[nPatterns];
+        mPatternReversed = new boolean[nPatterns];
+        for (int p = 0; p < nPatterns; p++) {
+            mPatternWord[p] = patternWord.get(p);
+            mPatternReversed[p] = patternReversed.get(p);
+        }
+
+        int maxChar = 0;
+        int maxStates = 1;
+        for (String pattern : patterns) {
+            maxStates += pattern.length();
+            for (int i = 0; i < pattern.length(); i++)
+                maxChar = Math.max(maxChar, pattern.charAt(i));
+        }
+        mCharClass = new int[maxChar + 1];
+        Arrays.fill(mCharClass, -1);
+        int classes = 0;
+        for (String pattern : patterns)
+            for (int i = 0; i < pattern.length(); i++)
+                if (mCharClass[pattern.charAt(i)] == -1)
+                    mCharClass[pattern.charAt(i)] = classes++;
+        nClasses = classes;
+
+        // Trie
+        int[] transitions = new int[maxStates * nClasses];
+        Arrays.fill(transitions, -1);
+        int[] output = new int[maxStates];
+        Arrays.fill(output, -1);
+        mNextPattern = new int[nPatterns];
+        Arrays.fill(mNextPattern, -1);
+        int nStates = 1;
+        for (int p = 0; p < nPatterns; p++) {
+            String pattern = patterns.get(p);
+            int state = 0;
+            for (int i = 0; i < pattern.length(); i++) {
+                int t = state * nClasses + mCharClass[pattern.charAt(i)];
+                if (transitions[t] == -1)
+                    transitions[t] = nStates++;
+                state = transitions[t];
+            }
+            mNextPattern[p] = output[state];
+            output[state] = p;
+        }
+
+        // Failure links in breadth first order, turning the trie into a complete automaton
+        int[] failure = new int[nStates];
+        int[] outputLink = new int[nStates];
+        Arrays.fill(outputLink, -1);
+        int[] queue = new int[nStates];
+        int head = 0, tail = 0;
+        for (int c = 0; c < nClasses; c++) {
+            int next = transitions[c];
+            if (next == -1) {
+                transitions[c] = 0;
+            } else {
+                failure[next] = 0;
+                queue[tail++] = next;
+            }
+        }
+        while (head < tail) {
+            int state = queue[head++];
+            int f = failure[state];
+            outputLink[state] = output[f] != -1 ? f : outputLink[f];
+            for (int c = 0; c < nClasses; c++) {
+                int t = state * nClasses + c;
+                int next = transitions[t];
+                if (next == -1) {
+                    transitions[t] = transitions[f * nClasses + c];
+                } else {
+                    failure[next] = transitions[f * nClasses + c];
+                    queue[tail++] = next;
+                }
+            }
+        }
+
+        mTransitions = Arrays.copyOf(transitions, nStates * nClasses);
+        mOutput = Arrays.copyOf(output, nStates);
+        mOutputLink = outputLink;
+    }
+
+    /**
+     * Every instance of every word in the grid. A palindrome is reported once for each set of cells.
+     */
+    public static List<Placement> findOccurrences(char[][] grid, List<String> words) {
+        return new OccurrenceScanner(words).find(grid);
+    }
+
+    public List<Placement> find(char[][] grid) {
+        final List<Placement> placements = new ArrayList<Placement>();
+        scan(grid, new Listener() {
+            public void onOccurrence(int word, int x, int y, int orientation) {
+                String w = mWords[word];
+                Point start = new Point(x, y);
+                Point end = WordSearchGenerator.getRelativePoint(orientation, start, w.length() - 1);
+                placements.add(new Placement(w, start, end, orientation));
+            }
+        });
+        return placements;
+    }
+
+    /**
+     * @return number of instances of each word, in the order the words were given
+     */
+    public int[] count(char[][] grid) {
+        final int[] counts = new int[mWords.length];
+        scan(grid, new Listener() {
+            public void onOccurrence(int word, int x, int y, int orientation) {
+                counts[word]++;
+            }
+        });
+        return counts;
+    }
+
+    /**
+     * Receives occurrences as a scan finds them, the order is unspecified
+     */
+    public interface Listener {
+        /**
+         * @param word        index of the word in the scanner's word list
+         * @param x           first index of the word's first letter
+         * @param y           second index of the word's first letter
+         * @param orientation one of the WordSearchGenerator orientation constants
+         */
+        void onOccurrence(int word, int x, int y, int orientation);
+    }
+
+    public void scan(char[][] grid, Listener listener) {
+        int nRow = grid.length;
+        if (nRow == 0) return;
+        int nCol = grid[0].length;
+        for (int axis = 0; axis < X_DELTA.length; axis++) {
+            int dx = X_DELTA[axis];
+            int dy = Y_DELTA[axis];
+            // A line starts at every cell whose previous cell on the axis is outside the grid
+            for (int x = 0; x < nRow; x++) {
+                for (int y = 0; y < nCol; y++) {
+                    int px = x - dx, py = y - dy;
+                    if (px >= 0 && px < nRow && py >= 0 && py < nCol)
+                        continue;
+                    scanLine(grid, x, y, axis, listener);
+                }
+            }
+        }
+    }
+
+    private void scanLine(char[][] grid, int x, int y, int axis, Listener listener) {
+        int nRow = grid.length;
+        int nCol = grid[0].length;
+        int dx = X_DELTA[axis];
+        int dy = Y_DELTA[axis];
+        int state = 0;
+        for (; x >= 0 && x < nRow && y >= 0 && y < nCol; x += dx, y += dy) {
+            char c = grid[x][y];
+            int cls = c < mCharClass.length ? mCharClass[c] : -1;
+            state = cls == -1 ? 0 : mTransitions[state * nClasses + cls];
+            for (int s = mOutput[state] != -1 ? state : mOutputLink[state]; s != -1; s = mOutputLink[s]) {
+                for (int p = mOutput[s]; p != -1; p = mNextPattern[p]) {
+                    int last = mWords[mPatternWord[p]].length() - 1;
+                    // A single letter is the same on every axis, only report it once
+                    if (last == 0 && axis != 0)
+                        continue;
+                    if (mPatternReversed[p])
+                        // Read backwards the word starts at the current cell
+                        listener.onOccurrence(mPatternWord[p], x, y, axis + 4);
+                    else
+                        listener.onOccurrence(mPatternWord[p], x - last * dx, y - last * dy, axis);
+                }
+            }
+        }
+    }
+}
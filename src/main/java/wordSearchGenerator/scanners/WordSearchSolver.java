@@ -0,0 +1,160 @@
+package wordSearchGenerator.scanners;
+
+import wordSearchGenerator.generators.StringUtils;
+import wordSearchGenerator.generators.WordSearchGenerator;
+import wordSearchGenerator.models.Placement;
+import wordSearchGenerator.models.Point;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Solves a grid for a list of words and checks selections against them, for example a player's.
+ * The grid is indexed once, see GridIndex, and the words are kept in a trie
+ * so checking a selection walks it once without allocating
+ */
+public class WordSearchSolver {
+    private final GridIndex mIndex;
+    private final String[] mWords;
+    private final char[][] mWordChars;
+
+    /**
+     * Trie over the words, mChildren[state * nClasses + class] is the next state or -1
+     */
+    private final int[] mCharClass;
+    private final int nClasses;
+    private final int[] mChildren;
+    /**
+     * Word ending at each state, -1 if none
+     */
+    private final int[] mWordAt;
+
+    public WordSearchSolver(char[][] grid, List<String> words) {
+        this(new GridIndex(grid), words);
+    }
+
+    public WordSearchSolver(GridIndex index, List<String> words) {
+        mIndex = index;
+        mWords = words.toArray(new String[words.size()]);
+        mWordChars = new char[mWords.length][];
+        int maxChar = 0;
+        int maxStates = 1;
+        for (int w = 0; w < mWords.length; w++) {
+            if (mWords[w].isEmpty())
+                throw new IllegalArgumentException("Empty word");
+            mWordChars[w] = mWords[w].toCharArray();
+            maxStates += mWordChars[w].length;
+            for (char c : mWordChars[w])
+                maxChar = Math.max(maxChar, c);
+        }
+        mCharClass = new int[maxChar + 1];
+        Arrays.fill(mCharClass, -1);
+        int classes = 0;
+        for (char[] word : mWordChars)
+            for (char c : word)
+                if (mCharClass[c] == -1)
+                    mCharClass[c] = classes++;
+        nClasses = classes;
+
+        int[] children = new int[maxStates * nClasses];
+        Arrays.fill(children, -1);
+        int[] wordAt = new int[maxStates];
+        Arrays.fill(wordAt, -1);
+        int nStates = 1;
+        for (int w = 0; w < mWordChars.length; w++) {
+            int state = 0;
+            for (char c : mWordChars[w]) {
+                int t = state * nClasses + mCharClass[c];
+                if (children[t] == -1)
+                    children[t] = nStates++;
+                state = children[t];
+            }
+            wordAt[state] = w;
+        }
+        mChildren = Arrays.copyOf(children, nStates * nClasses);
+        mWordAt = Arrays.copyOf(wordAt, nStates);
+    }
+
+    public GridIndex getIndex() {
+        return mIndex;
+    }
+
+    /**
+     * Every instance of every word, in the order the words were given. A palindrome or
+     * a single letter is reported once for each set of cells, like OccurrenceScanner
+     */
+    public List<Placement> solve() {
+        List<Placement> placements = new ArrayList<Placement>();
+        for (int w = 0; w < mWords.length; w++)
+            find(w, placements);
+        return placements;
+    }
+
+    /**
+     * @return every instance of one of the words
+     */
+    public List<Placement> find(String word) {
+        for (int w = 0; w < mWords.length; w++) {
+            if (mWords[w].equals(word)) {
+                List<Placement> placements = new ArrayList<Placement>();
+                find(w, placements);
+                return placements;
+            }
+        }
+        throw new IllegalArgumentException(word + " isn't one of the solver's words");
+    }
+
+    private void find(int w, List<Placement> placements) {
+        char[] word = mWordChars[w];
+        int nCol = mIndex.getnCol();
+        // The reverse orientations of a palindrome cover the same cells again
+        int orientations = word.length == 1 ? 1 : StringUtils.isPalindrome(mWords[w]) ? 4 : 8;
+        long[] starts = null;
+        for (int o = 0; o < orientations; o++) {
+            starts = mIndex.starts(word, o, starts);
+            for (int i = 0; i < starts.length; i++) {
+                for (long bits = starts[i]; bits != 0; bits &= bits - 1) {
+                    int idx = i * Long.SIZE + Long.numberOfTrailingZeros(bits);
+                    Point start = new Point(idx / nCol, idx % nCol);
+                    placements.add(new Placement(mWords[w], start,
+                            WordSearchGenerator.getRelativePoint(o, start, word.length - 1), o));
+                }
+            }
+        }
+    }
+
+    /**
+     * Reads the grid from (x1, y1) to (x2, y2) inclusive. Runs in the length of the segment and allocates nothing
+     *
+     * @return index of the word the segment spells, -1 if it doesn't spell one or isn't a straight line
+     * in one of the 8 orientations
+     */
+    public int wordAt(int x1, int y1, int x2, int y2) {
+        if (!mIndex.inBounds(x1, y1) || !mIndex.inBounds(x2, y2))
+            return -1;
+        int dx = x2 - x1;
+        int dy = y2 - y1;
+        if (dx != 0 && dy != 0 && Math.abs(dx) != Math.abs(dy))
+            return -1;
+        int length = Math.max(Math.abs(dx), Math.abs(dy)) + 1;
+        int sx = Integer.signum(dx);
+        int sy = Integer.signum(dy);
+        int state = 0;
+        for (int i = 0; i < length; i++) {
+            char c = mIndex.getLetter(x1 + i * sx, y1 + i * sy);
+            int cls = c < mCharClass.length ? mCharClass[c] : -1;
+            if (cls == -1) return -1;
+            state = mChildren[state * nClasses + cls];
+            if (state == -1) return -1;
+        }
+        return mWordAt[state];
+    }
+
+    /**
+     * @return whether the segment from p1 to p2 spells one of the words
+     */
+    public boolean isWord(Point p1, Point p2) {
+        return wordAt(p1.x, p1.y, p2.x, p2.y) != -1;
+    }
+}
@@ -0,0 +1,216 @@
+package wordSearchGenerator.server;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Just enough JSON for puzzle requests and responses, keeps the server free of dependencies.
+ * Objects parse to Map, arrays to List, numbers to BigDecimal so none of their digits get lost, plus String, Boolean and null
+ */
+class Json {
+    private final String mText;
+    private int mPos;
+
+    private Json(String text) {
+        mText = text;
+    }
+
+    /**
+     * @throws IllegalArgumentException if the text isn't valid JSON
+     */
+    static Object parse(String text) {
+        Json json = new Json(text);
+        Object value = json.value();
+        json.skipWhitespace();
+        if (json.mPos != text.length())
+            throw json.error("Trailing characters");
+        return value;
+    }
+
+    static void quote(String s, StringBuilder out) {
+        out.append('"');
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            switch (c) {
+                case '"':
+                    out.append("\\\"");
+                    break;
+                case '\\':
+                    out.append("\\\\");
+                    break;
+                case '\n':
+                    out.append("\\n");
+                    break;
+                case '\r':
+                    out.append("\\r");
+                    break;
+                case '\t':
+                    out.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20)
+                        out.append(String.format("\\u%04x", (int) c));
+                    else
+                        out.append(c);
+            }
+        }
+        out.append('"');
+    }
+
+    private Object value() {
+        skipWhitespace();
+        if (mPos >= mText.length())
+            throw error("Unexpected end");
+        char c = mText.charAt(mPos);
+        switch (c) {
+            case '{':
+                return object();
+            case '[':
+                return array();
+            case '"':
+                return string();
+            case 't':
+                return literal("true", Boolean.TRUE);
+            case 'f':
+                return literal("false", Boolean.FALSE);
+            case 'n':
+                return literal("null", null);
+            default:
+                return number();
+        }
+    }
+
+    private Map<String, Object> object() {
+        Map<String, Object> map = new LinkedHashMap<String, Object>();
+        mPos++;
+        skipWhitespace();
+        if (peek() == '}') {
+            mPos++;
+            return map;
+        }
+        while (true) {
+            skipWhitespace();
+            if (peek() != '"')
+                throw error("Expected a key");
+            String key = string();
+            skipWhitespace();
+            expect(':');
+            map.put(key, value());
+            skipWhitespace();
+            if (peek() == ',') {
+                mPos++;
+            } else {
+                expect('}');
+                return map;
+            }
+        }
+    }
+
+    private List<Object> array() {
+        List<Object> list = new ArrayList<Object>();
+        mPos++;
+        skipWhitespace();
+        if (peek() == ']') {
+            mPos++;
+            return list;
+        }
+        while (true) {
+            list.add(value());
+            skipWhitespace();
+            if (peek() == ',') {
+                mPos++;
+            } else {
+                expect(']');
+                return list;
+            }
+        }
+    }
+
+    private String string() {
+        StringBuilder sb = new StringBuilder();
+        mPos++;
+        while (true) {
+            if (mPos >= mText.length())
+                throw error("Unterminated string");
+            char c = mText.charAt(mPos++);
+            if (c == '"')
+                return sb.toString();
+            if (c != '\\') {
+                sb.append(c);
+                continue;
+            }
+            if (mPos >= mText.length())
+                throw error("Unterminated string");
+            char e = mText.charAt(mPos++);
+            switch (e) {
+                case 'b':
+                    sb.append('\b');
+                    break;
+                case 'f':
+                    sb.append('\f');
+                    break;
+                case 'n':
+                    sb.append('\n');
+                    break;
+                case 'r':
+                    sb.append('\r');
+                    break;
+                case 't':
+                    sb.append('\t');
+                    break;
+                case 'u':
+                    if (mPos + 4 > mText.length())
+                        throw error("Bad escape");
+                    try {
+                        sb.append((char) Integer.parseInt(mText.substring(mPos, mPos + 4), 16));
+                    } catch (NumberFormatException ex) {
+                        throw error("Bad escape");
+                    }
+                    mPos += 4;
+                    break;
+                default:
+                    sb.append(e);
+            }
+        }
+    }
+
+    private BigDecimal number() {
+        int start = mPos;
+        while (mPos < mText.length() && "+-0123456789.eE".indexOf(mText.charAt(mPos)) >= 0)
+            mPos++;
+        try {
+            return new BigDecimal(mText.substring(start, mPos));
+        } catch (NumberFormatException e) {
+            throw error("Bad number");
+        }
+    }
+
+    private Object literal(String word, Object value) {
+        if (!mText.startsWith(word, mPos))
+            throw error("Unexpected token");
+        mPos += word.length();
+        return value;
+    }
+
+    private void expect(char c) {
+        if (peek() != c)
+            throw error("Expected " + c);
+        mPos++;
+    }
+
+    private char peek() {
+        return mPos < mText.length() ? mText.charAt(mPos) : 0;
+    }
+
+    private void skipWhitespace() {
+        while (mPos < mText.length() && Character.isWhitespace(mText.charAt(mPos)))
+            mPos++;
+    }
+
+    private IllegalArgumentException error(String message) {
+        return new IllegalArgumentException(message + " at " + mPos);
+    }
+}
@@ -0,0 +1,351 @@
+package wordSearchGenerator.server;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import wordSearchGenerator.generators.FeasibilityCheck;
+import wordSearchGenerator.generators.WordSearchGenerator;
+import wordSearchGenerator.models.BuildResult;
+import wordSearchGenerator.models.BuildStatus;
+import wordSearchGenerator.models.Feasibility;
+import wordSearchGenerator.models.FeasibilityReport;
+import wordSearchGenerator.models.FillType;
+import wordSearchGenerator.models.Placement;
+import wordSearchGenerator.models.Puzzle;
+import wordSearchGenerator.models.PuzzleSpec;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.lang.reflect.Method;
+import java.math.BigDecimal;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Serves puzzles over HTTP with the JDK's built in server, nothing else needed on the classpath.
+ * <p>
+ * GET /puzzle?rows=10&amp;cols=10&amp;words=hello,world&amp;fill=RandomCharacters&amp;seed=1&amp;timeout=500
+ * or POST /puzzle with the same fields as a JSON object, words as an array.
+ * The response holds the grid as one string per row and the placements of the words.
+ * <p>
+ * Requests and builds run on virtual threads when the JDK has them, a cached thread pool otherwise,
+ * so a slow build only ties up its own thread. A build that runs past its timeout is cancelled
+ * and the request answered with 504
+ */
+public class PuzzleServer {
+    public static final long DEFAULT_TIMEOUT_MILLIS = 10000;
+
+    /**
+     * Largest grid a request can ask for
+     */
+    public static final int MAX_CELLS = 4000000;
+
+    /**
+     * How long past the timeout the request waits for a build to notice its own deadline before interrupting it
+     */
+    static final long GRACE_MILLIS = 250;
+
+    /**
+     * Largest POST body read, anything longer is answered with 413
+     */
+    static final int MAX_BODY_BYTES = 1 << 20;
+
+    private final HttpServer mServer;
+    private final ExecutorService mExecutor;
+    private final long mMaxTimeoutMillis;
+
+    public PuzzleServer(int port) throws IOException {
+        this(new InetSocketAddress(port), DEFAULT_TIMEOUT_MILLIS);
+    }
+
+    /**
+     * @param maxTimeoutMillis longest a build can run, requests can only ask for less
+     */
+    public PuzzleServer(InetSocketAddress address, long maxTimeoutMillis) throws IOException {
+        mMaxTimeoutMillis = maxTimeoutMillis;
+        mExecutor = newRequestExecutor();
+        mServer = HttpServer.create(address, 0);
+        mServer.setExecutor(mExecutor);
+        mServer.createContext("/puzzle", new PuzzleHandler());
+    }
+
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 8080;
+        PuzzleServer server = new PuzzleServer(port);
+        server.start();
+        System.out.println("Serving puzzles on port " + server.getPort());
+    }
+
+    public void start() {
+        mServer.start();
+    }
+
+    /**
+     * Stops accepting requests and cancels the builds still running
+     */
+    public void stop() {
+        mServer.stop(0);
+        mExecutor.shutdownNow();
+    }
+
+    public int getPort() {
+        return mServer.getAddress().getPort();
+    }
+
+    /**
+     * A thread per task, virtual where the JDK has them. Looked up reflectively so the library still runs on older JDKs
+     */
+    static ExecutorService newRequestExecutor() {
+        try {
+            Method virtual = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) virtual.invoke(null);
+        } catch (Exception e) {
+            return Executors.newCachedThreadPool(new ThreadFactory() {
+                public Thread newThread(Runnable r) {
+                    Thread t = new Thread(r, "puzzle-server");
+                    t.setDaemon(true);
+                    return t;
+                }
+            });
+        }
+    }
+
+    private class PuzzleHandler implements HttpHandler {
+        public void handle(HttpExchange exchange) throws IOException {
+            try {
+                Map<String, Object> request;
+                String method = exchange.getRequestMethod();
+                if ("GET".equals(method)) {
+                    request = parseQuery(exchange.getRequestURI().getRawQuery());
+                } else if ("POST".equals(method)) {
+                    String length = exchange.getRequestHeaders().getFirst("Content-Length");
+                    if (length != null && length.length() > 0 && Long.parseLong(length.trim()) > MAX_BODY_BYTES)
+                        throw new BodyTooLargeException();
+                    Object body = Json.parse(readBody(exchange.getRequestBody()));
+                    if (!(body instanceof Map))
+                        throw new IllegalArgumentException("Expected a JSON object");
+                    @SuppressWarnings("unchecked")
+                    Map<String, Object> map = (Map<String, Object>) body;
+                    request = map;
+                } else {
+                    exchange.getResponseHeaders().set("Allow", "GET, POST");
+                    respond(exchange, 405, error("Method not allowed"));
+                    return;
+                }
+                PuzzleSpec spec = toSpec(request);
+                // Only the structural checks, sampling the fill would cost more than many builds
+                FeasibilityReport feasibility = FeasibilityCheck.screen(spec);
+                if (feasibility.feasibility == Feasibility.Infeasible)
+                    throw new IllegalArgumentException("Infeasible spec " + feasibility.reasons);
+                long timeout = getLong(request, "timeout", mMaxTimeoutMillis);
+                if (timeout <= 0)
+                    throw new IllegalArgumentException("timeout must be positive");
+                respond(exchange, 200, toJson(generate(spec, Math.min(mMaxTimeoutMillis, timeout))));
+            } catch (BodyTooLargeException e) {
+                respond(exchange, 413, error("Body longer than " + MAX_BODY_BYTES + " bytes"));
+            } catch (IllegalArgumentException e) {
+                respond(exchange, 400, error(e.getMessage()));
+            } catch (TimeoutException e) {
+                respond(exchange, 504, error("Build timed out"));
+            } catch (CancellationException e) {
+                respond(exchange, 503, error("Build cancelled"));
+            } catch (RuntimeException e) {
+                respond(exchange, 500, error("Build failed"));
+            } finally {
+                exchange.close();
+            }
+        }
+    }
+
+    /**
+     * Builds on a thread of its own so the request thread can give up on it and interrupt it
+     */
+    private Puzzle generate(final PuzzleSpec spec, final long timeoutMillis) throws TimeoutException {
+        Future<Puzzle> future = mExecutor.submit(new Callable<Puzzle>() {
+            public Puzzle call() throws TimeoutException {
+                WordSearchGenerator generator = new WordSearchGenerator(spec.nRow, spec.nCol, spec.words, spec.fillType);
+                if (spec.seed != null)
+                    generator.setSeed(spec.seed);
+                // The build gives up by itself at the deadline, even between cells of one attempt
+                BuildResult result = generator.build(timeoutMillis, TimeUnit.MILLISECONDS);
+                if (result.status == BuildStatus.DeadlineExceeded)
+                    throw new TimeoutException("Build past " + timeoutMillis + " ms");
+                if (!result.isCompleted())
+                    throw new CancellationException(result.status.toString());
+                return result.puzzle;
+            }
+        });
+        try {
+            // The build's deadline is the one that counts, this wait only catches a build that missed it
+            return future.get(timeoutMillis + GRACE_MILLIS, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw e;
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Request interrupted");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof TimeoutException)
+                throw (TimeoutException) e.getCause();
+            if (e.getCause() instanceof RuntimeException)
+                throw (RuntimeException) e.getCause();
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    static PuzzleSpec toSpec(Map<String, Object> request) {
+        int nRow = getInt(request, "rows", -1);
+        int nCol = getInt(request, "cols", -1);
+        if (nRow <= 0 || nCol <= 0)
+            throw new IllegalArgumentException("rows and cols must be positive");
+        if ((long) nRow * nCol > MAX_CELLS)
+            throw new IllegalArgumentException("Grid larger than " + MAX_CELLS + " cells");
+
+        List<String> words = new ArrayList<String>();
+        Object value = request.containsKey("words") ? request.get("words") : request.get("word");
+        if (value instanceof List) {
+            for (Object word : (List<?>) value)
+                words.add(String.valueOf(word));
+        } else if (value instanceof String) {
+            words.addAll(Arrays.asList(((String) value).split(",")));
+        }
+        if (words.isEmpty())
+            throw new IllegalArgumentException("No words");
+        for (String word : words) {
+            // A word longer than both sides never fits and the build would retry forever
+            if (word.length() > Math.max(nRow, nCol))
+                throw new IllegalArgumentException(word + " doesn't fit in the grid");
+        }
+
+        FillType fillType = FillType.RandomCharacters;
+        Object fill = request.get("fill");
+        if (fill != null) {
+            try {
+                fillType = FillType.valueOf(String.valueOf(fill));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unknown fill " + fill);
+            }
+        }
+        Long seed = request.get("seed") == null ? null : getLong(request, "seed", 0);
+        return new PuzzleSpec(nRow, nCol, words, fillType, seed);
+    }
+
+    /**
+     * @throws IllegalArgumentException if the value isn't a whole number that fits in an int
+     */
+    private static int getInt(Map<String, Object> request, String key, int defaultValue) {
+        long value = getLong(request, key, defaultValue);
+        if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE)
+            throw new IllegalArgumentException(key + " out of range");
+        return (int) value;
+    }
+
+    /**
+     * A JSON number has to be whole and fit in a long exactly, it's never rounded or truncated
+     * into another seed or size
+     *
+     * @throws IllegalArgumentException if the value isn't a whole number that fits in a long
+     */
+    private static long getLong(Map<String, Object> request, String key, long defaultValue) {
+        Object value = request.get(key);
+        if (value == null)
+            return defaultValue;
+        if (value instanceof BigDecimal) {
+            try {
+                return ((BigDecimal) value).longValueExact();
+            } catch (ArithmeticException e) {
+                throw new IllegalArgumentException(key + " must be a whole number");
+            }
+        }
+        try {
+            return Long.parseLong(String.valueOf(value));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(key + " must be a number");
+        }
+    }
+
+    static Map<String, Object> parseQuery(String query) throws UnsupportedEncodingException {
+        Map<String, Object> params = new HashMap<String, Object>();
+        if (query == null || query.isEmpty())
+            return params;
+        for (String pair : query.split("&")) {
+            int eq = pair.indexOf('=');
+            String key = URLDecoder.decode(eq < 0 ? pair : pair.substring(0, eq), "UTF-8");
+            String value = eq < 0 ? "" : URLDecoder.decode(pair.substring(eq + 1), "UTF-8");
+            params.put(key, value);
+        }
+        return params;
+    }
+
+    static String toJson(Puzzle puzzle) {
+        StringBuilder out = new StringBuilder();
+        out.append("{\"grid\":[");
+        for (int x = 0; x < puzzle.grid.length; x++) {
+            if (x > 0) out.append(',');
+            Json.quote(new String(puzzle.grid[x]), out);
+        }
+        out.append("],\"placements\":[");
+        for (int i = 0; i < puzzle.placements.size(); i++) {
+            Placement p = puzzle.placements.get(i);
+            if (i > 0) out.append(',');
+            out.append("{\"word\":");
+            Json.quote(p.word, out);
+            out.append(",\"start\":[").append(p.start.x).append(',').append(p.start.y)
+                    .append("],\"end\":[").append(p.end.x).append(',').append(p.end.y)
+                    .append("],\"orientation\":").append(p.orientation).append('}');
+        }
+        out.append("]}");
+        return out.toString();
+    }
+
+    private static String error(String message) {
+        StringBuilder out = new StringBuilder("{\"error\":");
+        Json.quote(message == null ? "" : message, out);
+        return out.append('}').toString();
+    }
+
+    /**
+     * @throws BodyTooLargeException past MAX_BODY_BYTES, for a chunked body that gave no Content-Length
+     */
+    private static String readBody(InputStream in) throws IOException {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        byte[] buffer = new byte[4096];
+        for (int n; (n = in.read(buffer)) != -1; ) {
+            if (body.size() + n > MAX_BODY_BYTES)
+                throw new BodyTooLargeException();
+            body.write(buffer, 0, n);
+        }
+        return body.toString("UTF-8");
+    }
+
+    private static class BodyTooLargeException extends IOException {
+        private static final long serialVersionUID = 1L;
+    }
+
+    private static void respond(HttpExchange exchange, int status, String json) throws IOException {
+        byte[] bytes = json.getBytes("UTF-8");
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        OutputStream out = exchange.getResponseBody();
+        out.write(bytes);
+        out.close();
+    }
+}
@@ -0,0 +1,184 @@
+package wordSearchGenerator.bulk;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import wordSearchGenerator.generators.WordSearchGenerator;
+import wordSearchGenerator.io.MappedPuzzle;
+import wordSearchGenerator.io.PuzzleReader;
+import wordSearchGenerator.models.FillType;
+import wordSearchGenerator.models.PuzzleSpec;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class BulkGeneratorTest {
+    private static final String SPECS = "# rows cols fill count words\n"
+            + "8 8 RandomCharacters 7 apple,kiwi\n"
+            + "\n"
+            + "6 12 CharactersOfTheWord 5 hello,world\n";
+    private static final long HOUR = 3600 * 1000L;
+
+    private File mDir;
+
+    @Before
+    public void setUp() throws IOException {
+        mDir = Files.createTempDirectory("bulk").toFile();
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        delete(mDir);
+    }
+
+    @Test
+    public void testSeedRanges() throws IOException {
+        BulkJob job = BulkJob.fromString(SPECS, 100, 4, 3);
+        assertEquals(12, job.getTotal());
+        assertEquals(3, job.getShardCount());
+        assertEquals(8, job.shardStart(2));
+        assertEquals(12, job.shardEnd(2));
+        PuzzleSpec spec = job.specAt(6);
+        assertEquals(8, spec.nRow);
+        assertEquals(Long.valueOf(106), spec.seed);
+        spec = job.specAt(7);
+        assertEquals(Arrays.asList("hello", "world"), spec.words);
+        assertEquals(Long.valueOf(107), spec.seed);
+
+        // Anything that changes the puzzles changes the fingerprint
+        assertEquals(job.getFingerprint(), BulkJob.fromString(SPECS, 100, 4, 3).getFingerprint());
+        assertFalse(job.getFingerprint().equals(BulkJob.fromString(SPECS, 101, 4, 3).getFingerprint()));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInfeasibleSpec() throws IOException {
+        BulkJob.fromString("4 4 RandomCharacters 10 hello\n", 0, 4, 3);
+    }
+
+    @Test
+    public void testWorkersSplitAndResume() throws IOException {
+        BulkJob job = BulkJob.fromString(SPECS, 100, 4, 3);
+        File single = new File(mDir, "single");
+        assertEquals(3, BulkGenerator.work(job, single, "a", HOUR));
+        assertTrue(BulkGenerator.verify(job, single));
+        checkPuzzles(job, single);
+
+        // A live claim on shard 1 keeps the first worker off it, the second takes it once released
+        File shared = new File(mDir, "shared");
+        assertTrue(shared.mkdirs());
+        Files.write(new File(shared, WorkQueue.claimName(1)).toPath(), "ghost".getBytes("UTF-8"));
+        assertEquals(2, BulkGenerator.work(job, shared, "b", HOUR));
+        assertFalse(BulkGenerator.verify(job, shared));
+        WorkQueue.releaseAll(shared, "ghost");
+        assertEquals(1, BulkGenerator.work(job, shared, "c", HOUR));
+        assertTrue(BulkGenerator.verify(job, shared));
+        assertSameFiles(single, shared);
+
+        // Lose a manifest and damage a segment, only those two shards are built again
+        File finished = new File(shared, ShardManifest.fileName(1));
+        assertTrue(finished.setLastModified(1000));
+        assertTrue(new File(shared, ShardManifest.fileName(0)).delete());
+        RandomAccessFile segment = new RandomAccessFile(new File(shared, ShardManifest.segmentName(2, 0)), "rw");
+        segment.setLength(segment.length() - 1);
+        segment.close();
+        assertEquals(2, BulkGenerator.work(job, shared, "d", HOUR));
+        assertEquals(1000, finished.lastModified());
+        assertTrue(BulkGenerator.verify(job, shared));
+        assertSameFiles(single, shared);
+    }
+
+    @Test
+    public void testStaleClaimTakenOver() throws IOException {
+        BulkJob job = BulkJob.fromString(SPECS, 0, 6, 6);
+        File claim = new File(mDir, WorkQueue.claimName(0));
+        Files.write(claim.toPath(), "crashed".getBytes("UTF-8"));
+        assertTrue(claim.setLastModified(System.currentTimeMillis() - 2 * HOUR));
+        assertEquals(2, BulkGenerator.work(job, mDir, "a", HOUR));
+        assertFalse(claim.exists());
+        assertTrue(BulkGenerator.verify(job, mDir));
+    }
+
+    @Test
+    public void testRunStartsWorkerProcesses() throws Exception {
+        File specFile = new File(mDir, "specs.txt");
+        Files.write(specFile.toPath(), SPECS.getBytes("UTF-8"));
+        BulkGenerator.Options options = new BulkGenerator.Options();
+        options.seed = 100;
+        options.shardSize = 4;
+        options.segmentSize = 3;
+        options.processes = 2;
+        File out = new File(mDir, "out");
+        assertTrue(BulkGenerator.run(specFile, out, options));
+        assertTrue(new File(out, BulkGenerator.JOB_MANIFEST).isFile());
+
+        BulkJob job = options.job(specFile);
+        File local = new File(mDir, "local");
+        BulkGenerator.work(job, local, "a", HOUR);
+        assertSameFiles(local, out);
+    }
+
+    @Test
+    public void testLargeShard() throws IOException {
+        // More puzzles than vm.max_map_count allows mappings by default, 65530, in one shard
+        BulkJob job = BulkJob.fromString("3 3 RandomCharacters 70000 cat\n", 0, 70000, 35000);
+        assertEquals(1, BulkGenerator.work(job, mDir, "a", HOUR));
+        assertTrue(BulkGenerator.verify(job, mDir));
+        int puzzles = 0;
+        for (ShardManifest.Segment s : ShardManifest.read(mDir, 0).segments) {
+            FileChannel channel = FileChannel.open(new File(mDir, s.file).toPath(), StandardOpenOption.READ);
+            PuzzleReader reader = new PuzzleReader(channel);
+            for (; reader.hasNext(); puzzles++)
+                assertEquals(3, reader.next().getnRow());
+            channel.close();
+        }
+        assertEquals(70000, puzzles);
+    }
+
+    /**
+     * Every puzzle is the one WordSearchGenerator builds from its spec and seed
+     */
+    private static void checkPuzzles(BulkJob job, File dir) throws IOException {
+        long k = 0;
+        for (int shard = 0; shard < job.getShardCount(); shard++) {
+            for (ShardManifest.Segment s : ShardManifest.read(dir, shard).segments) {
+                FileChannel channel = FileChannel.open(new File(dir, s.file).toPath(), StandardOpenOption.READ);
+                PuzzleReader reader = new PuzzleReader(channel);
+                while (reader.hasNext()) {
+                    MappedPuzzle puzzle = reader.next();
+                    PuzzleSpec spec = job.specAt(k++);
+                    WordSearchGenerator w = new WordSearchGenerator(spec.nRow, spec.nCol, spec.words, spec.fillType);
+                    w.setSeed(spec.seed);
+                    assertArrayEquals(w.build(), puzzle.toCharMatrix());
+                }
+                channel.close();
+            }
+        }
+        assertEquals(job.getTotal(), k);
+    }
+
+    private static void assertSameFiles(File expected, File actual) throws IOException {
+        for (File f : expected.listFiles()) {
+            if (f.getName().endsWith(".wsg") || f.getName().endsWith(".manifest"))
+                assertArrayEquals(f.getName(), Files.readAllBytes(f.toPath()),
+                        Files.readAllBytes(new File(actual, f.getName()).toPath()));
+        }
+    }
+
+    private static void delete(File file) throws IOException {
+        File[] children = file.listFiles();
+        if (children != null)
+            for (File child : children)
+                delete(child);
+        Files.deleteIfExists(file.toPath());
+    }
+}
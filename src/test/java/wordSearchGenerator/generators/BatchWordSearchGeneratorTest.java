@@ -0,0 +1,76 @@
+package wordSearchGenerator.generators;
+
+import org.junit.Test;
+import wordSearchGenerator.models.FillType;
+import wordSearchGenerator.models.Puzzle;
+import wordSearchGenerator.models.PuzzleSpec;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class BatchWordSearchGeneratorTest {
+
+    @Test
+    public void testResultsInOrder(){
+        String[] words = {"hey", "hello", "time", "coding"};
+        List<PuzzleSpec> specs = new ArrayList<PuzzleSpec>();
+        for (int i = 0; i < 200; i++) {
+            String word = words[i % words.length];
+            specs.add(new PuzzleSpec(8 + i % 5, 10, word, i % 2 == 0 ? FillType.RandomCharacters : FillType.CharactersOfTheWord));
+        }
+
+        BatchWordSearchGenerator batch = new BatchWordSearchGenerator(4);
+        List<Puzzle> puzzles = batch.generateAll(specs);
+        batch.shutdown();
+
+        assertEquals(specs.size(), puzzles.size());
+        for (int i = 0; i < specs.size(); i++) {
+            PuzzleSpec spec = specs.get(i);
+            Puzzle puzzle = puzzles.get(i);
+            assertEquals(spec.nRow, puzzle.grid.length);
+            assertEquals(spec.nCol, puzzle.grid[0].length);
+            assertEquals(spec.words.get(0), puzzle.placements.get(0).word);
+            assertEquals(1, WordSearchGeneratorTest.countOccurrences(puzzle.grid, spec.words.get(0)));
+        }
+    }
+
+    @Test
+    public void testRepeatedSpecGivesDistinctGrids(){
+        PuzzleSpec spec = new PuzzleSpec(10, 10, "hello", FillType.RandomCharacters);
+        BatchWordSearchGenerator batch = new BatchWordSearchGenerator(2);
+        List<Puzzle> puzzles = batch.generateAll(Collections.nCopies(20, spec));
+        batch.shutdown();
+
+        for (int i = 1; i < puzzles.size(); i++)
+            assertTrue(puzzles.get(i).grid != puzzles.get(i - 1).grid);
+    }
+
+    @Test
+    public void testSeededSpecsAreReproducible(){
+        List<PuzzleSpec> specs = new ArrayList<PuzzleSpec>();
+        for (long seed = 0; seed < 50; seed++)
+            specs.add(new PuzzleSpec(10, 10, Collections.singletonList("hello"), FillType.CharactersOfTheWord, seed));
+
+        BatchWordSearchGenerator batch = new BatchWordSearchGenerator(3);
+        List<Puzzle> first = batch.generateAll(specs);
+        Collections.reverse(specs);
+        List<Puzzle> second = batch.generateAll(specs);
+        batch.shutdown();
+
+        for (int i = 0; i < first.size(); i++)
+            assertArrayEquals(first.get(i).grid, second.get(second.size() - 1 - i).grid);
+    }
+
+    @Test
+    public void testEmpty(){
+        BatchWordSearchGenerator batch = new BatchWordSearchGenerator(1);
+        assertTrue(batch.generateAll(Collections.<PuzzleSpec>emptyList()).isEmpty());
+        assertEquals(1, batch.getParallelism());
+        batch.shutdown();
+    }
+}
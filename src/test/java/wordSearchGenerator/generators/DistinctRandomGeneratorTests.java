@@ -4,6 +4,7 @@ import org.junit.Test;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.NoSuchElementException;
 
 import static org.junit.Assert.*;
 
@@ -69,4 +70,68 @@ public class DistinctRandomGeneratorTests{
         }while(element != null);
     }
 
+    @Test
+    public void testSeeded(){
+        DistinctRandomGenerator a = new DistinctRandomGenerator(10, new Xoshiro128PlusPlus(7));
+        DistinctRandomGenerator b = new DistinctRandomGenerator(10, new Xoshiro128PlusPlus(7));
+        for (int i = 0; i < 10; i++)
+            assertEquals(a.next(), b.next());
+    }
+
+    @Test
+    public void testXoshiroBound(){
+        Xoshiro128PlusPlus r = new Xoshiro128PlusPlus(42);
+        int[] counts = new int[3];
+        for (int i = 0; i < 3000; i++)
+            counts[r.nextInt(3)]++;
+        for (int count : counts)
+            assertTrue(count > 800 && count < 1200);
+    }
+
+    @Test
+    public void testIntGeneratorReset(){
+        DistinctRandomIntGenerator drg = new DistinctRandomIntGenerator(10, new Xoshiro128PlusPlus());
+        for (int round = 0; round < 3; round++) {
+            boolean[] seen = new boolean[10];
+            while (drg.hasNext()) {
+                int element = drg.next();
+                assertFalse(seen[element]);
+                seen[element] = true;
+            }
+            for (boolean s : seen)
+                assertTrue(s);
+            drg.reset();
+        }
+    }
+
+    @Test
+    public void testIntGeneratorSeededReset(){
+        DistinctRandomIntGenerator drg = new DistinctRandomIntGenerator(new int[]{3, 5, 7, 9}, new Xoshiro128PlusPlus(1));
+        int[] first = new int[4];
+        assertEquals(4, drg.draw(4, first));
+        drg.reset();
+        drg.setRandom(new Xoshiro128PlusPlus(1));
+        int[] second = new int[4];
+        assertEquals(4, drg.draw(10, second));
+        assertArrayEquals(first, second);
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void testIntGeneratorExhausted(){
+        DistinctRandomIntGenerator drg = new DistinctRandomIntGenerator(1, new Xoshiro128PlusPlus());
+        drg.next();
+        drg.next();
+    }
+
+    @Test
+    public void testCharGeneratorDraw(){
+        DistinctRandomCharGenerator drg = new DistinctRandomCharGenerator("abcde".toCharArray(), new Xoshiro128PlusPlus());
+        char[] drawn = new char[3];
+        assertEquals(3, drg.draw(3, drawn));
+        assertEquals(2, drg.remaining());
+        assertTrue(drawn[0] != drawn[1] && drawn[1] != drawn[2] && drawn[0] != drawn[2]);
+        assertEquals(2, drg.draw(3, drawn));
+        assertFalse(drg.hasNext());
+    }
+
 }
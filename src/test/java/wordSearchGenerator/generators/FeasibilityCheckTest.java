@@ -0,0 +1,89 @@
+package wordSearchGenerator.generators;
+
+import org.junit.Test;
+import wordSearchGenerator.models.Feasibility;
+import wordSearchGenerator.models.FeasibilityReport;
+import wordSearchGenerator.models.FillType;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class FeasibilityCheckTest {
+
+    private static FeasibilityReport analyze(int nRow, int nCol, String word, FillType type) {
+        return FeasibilityCheck.analyze(nRow, nCol, Collections.singletonList(word), type);
+    }
+
+    @Test
+    public void testFeasible(){
+        FeasibilityReport report = analyze(20, 20, "hello", FillType.CharactersOfTheWord);
+        assertEquals(Feasibility.Feasible, report.feasibility);
+        assertTrue(report.expectedRetries < 1);
+        assertEquals(Feasibility.Feasible, analyze(1000, 3, "hey", FillType.RandomCharacters).feasibility);
+    }
+
+    @Test
+    public void testLargeGridNearWords(){
+        // 'e' and 'l' never end a line of the open fill, but next to an inserted "hello" any letter can,
+        // so a large grid still gets the estimate sampled around the word rather than none
+        FeasibilityReport report = analyze(500, 500, "hello", FillType.CharactersOfTheWord);
+        assertEquals(Feasibility.Feasible, report.feasibility);
+        assertTrue(report.expectedRetries > 0);
+        assertTrue(analyze(500, 500, "hello", FillType.RandomCharacters).expectedRetries > 0);
+    }
+
+    @Test
+    public void testScreen(){
+        assertEquals(Feasibility.Infeasible, FeasibilityCheck.screen(4, 4, Collections.singletonList("hello"),
+                FillType.RandomCharacters).feasibility);
+        assertEquals(Feasibility.Infeasible, FeasibilityCheck.screen(3, 3, Collections.singletonList("ab"),
+                FillType.CharactersOfTheWord).feasibility);
+        // A single column fills with a's above the word and b's below it
+        assertTrue(FeasibilityCheck.screen(12, 1, Collections.singletonList("ab"),
+                FillType.CharactersOfTheWord).feasibility != Feasibility.Infeasible);
+        assertEquals(Feasibility.Risky, FeasibilityCheck.screen(1, 3, Collections.singletonList("aaa"),
+                FillType.CharactersOfTheWord).feasibility);
+        // Finding a risky fill takes sampling, screen doesn't estimate retries at all
+        FeasibilityReport report = FeasibilityCheck.screen(30, 30, Collections.singletonList("abb"), FillType.CharactersOfTheWord);
+        assertEquals(Feasibility.Feasible, report.feasibility);
+        assertTrue(Double.isNaN(report.expectedRetries));
+    }
+
+    @Test
+    public void testInfeasible(){
+        assertEquals(Feasibility.Infeasible, analyze(4, 4, "hello", FillType.RandomCharacters).feasibility);
+        assertEquals(Feasibility.Infeasible, analyze(3, 3, "aa", FillType.CharactersOfTheWord).feasibility);
+        assertEquals(Feasibility.Infeasible, analyze(3, 3, "ab", FillType.CharactersOfTheWord).feasibility);
+        assertEquals(Feasibility.Infeasible, FeasibilityCheck.analyze(10, 10, Arrays.asList("cat", "concatenate"),
+                FillType.RandomCharacters).feasibility);
+        assertTrue(Double.isInfinite(analyze(4, 4, "hello", FillType.RandomCharacters).expectedRetries));
+    }
+
+    @Test
+    public void testExactFits(){
+        // The only line of the grid is the word itself, possible but only one way to insert it
+        assertEquals(Feasibility.Risky, analyze(1, 3, "aaa", FillType.CharactersOfTheWord).feasibility);
+        assertEquals(Feasibility.Risky, analyze(1, 2, "ab", FillType.CharactersOfTheWord).feasibility);
+    }
+
+    @Test
+    public void testRisky(){
+        FeasibilityReport report = analyze(30, 30, "abb", FillType.CharactersOfTheWord);
+        assertEquals(Feasibility.Risky, report.feasibility);
+        assertTrue(report.expectedRetries > FeasibilityCheck.RISKY_RETRIES);
+
+        // Retries grow with the grid since every cell is another chance to die
+        assertTrue(analyze(10, 10, "abb", FillType.CharactersOfTheWord).expectedRetries < report.expectedRetries);
+    }
+
+    @Test
+    public void testBorder(){
+        assertEquals(0, FeasibilityCheck.border("hello"));
+        assertEquals(1, FeasibilityCheck.border("aba"));
+        assertEquals(2, FeasibilityCheck.border("abab"));
+        assertEquals(3, FeasibilityCheck.border("aaaa"));
+    }
+}
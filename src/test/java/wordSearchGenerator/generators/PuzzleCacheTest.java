@@ -0,0 +1,103 @@
+package wordSearchGenerator.generators;
+
+import org.junit.Test;
+import wordSearchGenerator.models.FillType;
+import wordSearchGenerator.models.Placement;
+import wordSearchGenerator.models.Puzzle;
+import wordSearchGenerator.models.PuzzleSpec;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class PuzzleCacheTest {
+
+    private static PuzzleSpec spec(long seed) {
+        return new PuzzleSpec(12, 12, Collections.singletonList("hello"), FillType.RandomCharacters, seed);
+    }
+
+    @Test
+    public void testHitReturnsSamePuzzle(){
+        PuzzleCache cache = new PuzzleCache(10, 1 << 20);
+        Puzzle first = cache.get(spec(7));
+        first.grid[0][0] = '#';
+        Puzzle second = cache.get(spec(7));
+
+        WordSearchGenerator w = new WordSearchGenerator(12, 12, "hello", FillType.RandomCharacters);
+        w.setSeed(7);
+        assertArrayEquals(w.build(), second.grid);
+        Placement p = second.placements.get(0);
+        assertEquals(w.getStartAndEndPointOfWord().get(0), p.start);
+        assertEquals(w.getStartAndEndPointOfWord().get(1), p.end);
+
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+        assertEquals(1, cache.getBuilds());
+    }
+
+    @Test
+    public void testLeastRecentlyUsedIsEvicted(){
+        PuzzleCache cache = new PuzzleCache(2, 1 << 20);
+        cache.get(spec(1));
+        cache.get(spec(2));
+        cache.get(spec(1));
+        cache.get(spec(3));
+        assertTrue(cache.contains(spec(1)));
+        assertFalse(cache.contains(spec(2)));
+        assertTrue(cache.contains(spec(3)));
+        assertEquals(1, cache.getEvictions());
+    }
+
+    @Test
+    public void testByteBound(){
+        PuzzleCache small = new PuzzleCache(100, 1 << 20);
+        small.get(spec(1));
+        long entryBytes = small.getBytes();
+
+        PuzzleCache cache = new PuzzleCache(100, 3 * entryBytes);
+        for (long seed = 0; seed < 10; seed++)
+            cache.get(spec(seed));
+        assertEquals(3, cache.size());
+        assertTrue(cache.getBytes() <= 3 * entryBytes);
+    }
+
+    @Test
+    public void testUnseededSpecsAreNotCached(){
+        PuzzleCache cache = new PuzzleCache(10, 1 << 20);
+        cache.get(new PuzzleSpec(10, 10, "hey", FillType.RandomCharacters));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testConcurrentRequestsShareOneBuild() throws InterruptedException {
+        final PuzzleCache cache = new PuzzleCache(10, 1 << 24);
+        final PuzzleSpec spec = new PuzzleSpec(200, 200, Collections.singletonList("hello"), FillType.CharactersOfTheWord, 3L);
+        final CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<Thread>();
+        for (int i = 0; i < 8; i++) {
+            Thread t = new Thread(new Runnable() {
+                public void run() {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    cache.get(spec);
+                }
+            });
+            t.start();
+            threads.add(t);
+        }
+        start.countDown();
+        for (Thread t : threads)
+            t.join();
+        assertEquals(1, cache.getBuilds());
+        assertEquals(8, cache.getHits() + cache.getMisses());
+    }
+}
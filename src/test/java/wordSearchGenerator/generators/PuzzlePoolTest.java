@@ -0,0 +1,94 @@
+package wordSearchGenerator.generators;
+
+import org.junit.Test;
+import wordSearchGenerator.models.FillType;
+import wordSearchGenerator.models.Puzzle;
+import wordSearchGenerator.models.PuzzleSpec;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+public class PuzzlePoolTest {
+
+    private static void awaitLevel(PuzzlePool pool, PuzzleSpec spec, int level) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10000;
+        while (pool.getLevel(spec) < level && System.currentTimeMillis() < deadline)
+            Thread.sleep(5);
+        assertEquals(level, pool.getLevel(spec));
+    }
+
+    @Test
+    public void testFillsAndRefills() throws InterruptedException {
+        PuzzleSpec hey = new PuzzleSpec(10, 10, "hey", FillType.RandomCharacters);
+        PuzzleSpec hello = new PuzzleSpec(15, 12, "hello", FillType.CharactersOfTheWord);
+        PuzzlePool pool = new PuzzlePool(Arrays.asList(hey, hello), 8, 2);
+        awaitLevel(pool, hey, 8);
+        awaitLevel(pool, hello, 8);
+
+        for (int i = 0; i < 6; i++) {
+            Puzzle puzzle = pool.poll(hello);
+            assertNotNull(puzzle);
+            assertEquals(15, puzzle.grid.length);
+            assertEquals(1, WordSearchGeneratorTest.countOccurrences(puzzle.grid, "hello"));
+        }
+        awaitLevel(pool, hello, 8);
+        assertEquals(6, pool.getHandedOut());
+        assertEquals(22, pool.getGenerated());
+        pool.shutdown();
+    }
+
+    @Test
+    public void testEmptyPoolDoesNotBlock() {
+        PuzzleSpec spec = new PuzzleSpec(400, 400, "timewatch", FillType.CharactersOfTheWord);
+        PuzzlePool pool = new PuzzlePool(Arrays.asList(spec), 2, 1);
+        int empty = 0;
+        for (int i = 0; i < 10; i++) {
+            if (pool.poll(spec) == null)
+                empty++;
+        }
+        assertTrue(empty > 0);
+        assertEquals(empty, pool.getEmptyPolls());
+
+        Puzzle puzzle = pool.get(spec);
+        assertEquals(400, puzzle.grid.length);
+        pool.shutdown();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInfeasibleSpec() {
+        // Filling with only 'a' next to the inserted "aa" always makes a second one
+        new PuzzlePool(Arrays.asList(new PuzzleSpec(3, 3, "aa", FillType.CharactersOfTheWord)), 2, 1);
+    }
+
+    @Test
+    public void testRefillDeadline() throws InterruptedException {
+        PuzzleSpec slow = new PuzzleSpec(2000, 2000, "timewatch", FillType.CharactersOfTheWord);
+        PuzzleSpec hey = new PuzzleSpec(10, 10, "hey", FillType.RandomCharacters);
+        PuzzlePool pool = new PuzzlePool(Arrays.asList(slow, hey), 2, 1, 100, TimeUnit.MILLISECONDS);
+        long deadline = System.currentTimeMillis() + 10000;
+        while (pool.getTimedOutRefills() == 0 && System.currentTimeMillis() < deadline)
+            Thread.sleep(5);
+        assertTrue(pool.getTimedOutRefills() > 0);
+        assertEquals(0, pool.getLevel(slow));
+        // The one thread isn't held by the spec that can't make its deadline
+        awaitLevel(pool, hey, 2);
+        assertEquals(0, pool.getFailedRefills());
+        pool.shutdown();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnknownSpec() {
+        List<PuzzleSpec> specs = Arrays.asList(new PuzzleSpec(10, 10, "hey", FillType.RandomCharacters));
+        PuzzlePool pool = new PuzzlePool(specs, 2, 1);
+        try {
+            pool.poll(new PuzzleSpec(11, 10, "hey", FillType.RandomCharacters));
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
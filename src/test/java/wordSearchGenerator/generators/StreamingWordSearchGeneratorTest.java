@@ -0,0 +1,105 @@
+package wordSearchGenerator.generators;
+
+import org.junit.Test;
+import wordSearchGenerator.models.FillType;
+import wordSearchGenerator.models.Placement;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.channels.Channels;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+public class StreamingWordSearchGeneratorTest {
+
+    @Test
+    public void testTallGrid() throws IOException {
+        List<String> words = Arrays.asList("hello", "world", "stream");
+        StreamingWordSearchGenerator g = new StreamingWordSearchGenerator(300, 25, words, FillType.CharactersOfTheWord);
+        StringWriter out = new StringWriter();
+        List<Placement> placements = g.generate(out);
+
+        char[][] grid = parse(out.toString());
+        assertEquals(300, grid.length);
+        assertEquals(25, grid[0].length);
+        for (String word : words)
+            assertEquals(word, 1, WordSearchGeneratorTest.countOccurrences(grid, word));
+        for (Placement p : placements) {
+            assertEquals(p.word.charAt(0), grid[p.start.x][p.start.y]);
+            assertEquals(p.word.charAt(p.word.length() - 1), grid[p.end.x][p.end.y]);
+        }
+    }
+
+    @Test
+    public void testFewerRowsThanWindow() throws IOException {
+        StreamingWordSearchGenerator g = new StreamingWordSearchGenerator(3, 12, "streaming", FillType.RandomCharacters);
+        StringWriter out = new StringWriter();
+        g.generate(out);
+        char[][] grid = parse(out.toString());
+        assertEquals(3, grid.length);
+        assertEquals(1, WordSearchGeneratorTest.countOccurrences(grid, "streaming"));
+    }
+
+    @Test
+    public void testChannelMatchesWriter() throws IOException {
+        StreamingWordSearchGenerator g = new StreamingWordSearchGenerator(40, 40, "channel", FillType.RandomCharacters);
+        g.setSeed(99);
+        StringWriter writer = new StringWriter();
+        g.generate(writer);
+
+        g.setSeed(99);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        g.generate(Channels.newChannel(bytes));
+        assertEquals(writer.toString(), new String(bytes.toByteArray(), "ISO-8859-1"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInfeasibleRejected() {
+        new StreamingWordSearchGenerator(4, 4, "toolong", FillType.RandomCharacters);
+    }
+
+    /**
+     * Next to "abb" and "baa" the fill runs out of letters, in a grid this short before any row goes out
+     */
+    @Test
+    public void testStuckBeforeWriting() throws IOException {
+        StreamingWordSearchGenerator g = new StreamingWordSearchGenerator(3, 12, Arrays.asList("abb", "baa"),
+                FillType.CharactersOfTheWord);
+        g.setSeed(1);
+        StringWriter out = new StringWriter();
+        try {
+            g.generate(out);
+            fail();
+        } catch (StreamingWordSearchGenerator.PartialOutputException e) {
+            fail(e.getMessage());
+        } catch (IllegalStateException e) {
+            assertEquals("", out.toString());
+        }
+    }
+
+    @Test
+    public void testPartialOutput() throws IOException {
+        StreamingWordSearchGenerator g = new StreamingWordSearchGenerator(60, 12, Arrays.asList("abb", "baa"),
+                FillType.CharactersOfTheWord);
+        g.setSeed(1);
+        StringWriter out = new StringWriter();
+        try {
+            g.generate(out);
+            fail();
+        } catch (StreamingWordSearchGenerator.PartialOutputException e) {
+            assertEquals(e.rowsWritten, parse(out.toString()).length);
+        }
+    }
+
+    private static char[][] parse(String s) {
+        String[] lines = s.split("\n");
+        char[][] grid = new char[lines.length][];
+        for (int i = 0; i < lines.length; i++)
+            grid[i] = lines[i].toCharArray();
+        return grid;
+    }
+}
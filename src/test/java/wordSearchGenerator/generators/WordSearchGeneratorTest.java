@@ -1,10 +1,27 @@
 package wordSearchGenerator.generators;
 
 import org.junit.Test;
+import wordSearchGenerator.models.BuildResult;
+import wordSearchGenerator.models.BuildStatus;
+import wordSearchGenerator.models.Difficulty;
+import wordSearchGenerator.models.DifficultyStats;
 import wordSearchGenerator.models.FillType;
+import wordSearchGenerator.models.GenerationStats;
+import wordSearchGenerator.models.Placement;
+import wordSearchGenerator.models.PlacementRanking;
 import wordSearchGenerator.models.Point;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 
 public class WordSearchGeneratorTest {
 
@@ -13,6 +30,16 @@ public class WordSearchGeneratorTest {
         assertEquals(";lkjfdsa", StringUtils.reverse("asdfjkl;"));
     }
 
+    @Test
+    public void testTextPrimitives(){
+        assertTrue(StringUtils.isPalindrome("racecar"));
+        assertTrue(StringUtils.isPalindrome("a"));
+        assertFalse(StringUtils.isPalindrome("ab"));
+        assertTrue(StringUtils.containsReversed("xxcbax", "abc"));
+        assertFalse(StringUtils.containsReversed("xxabcx", "abc"));
+        assertArrayEquals(new char[]{'h', 'e', 'l', 'o', 'w', 'r', 'd'}, StringUtils.getDistinctChars("hello", "world"));
+    }
+
     @Test
     public void testRelativePointLeft(){
         Point p =  WordSearchGenerator.getRelativePoint(WordSearchGenerator.LEFT, new Point(1,2), 1);
@@ -57,4 +84,365 @@ public class WordSearchGeneratorTest {
         WordSearchGenerator w = new WordSearchGenerator(1000,1000,"verylargewordsearch", FillType.CharactersOfTheWord);
         w.build();
     }
+
+    @Test
+    public void testWordAppearsOnce(){
+        String[] words = {"hey", "hello", "aba", "noon", "timewatch"};
+        for (String word : words) {
+            for (FillType type : FillType.values()) {
+                WordSearchGenerator w = new WordSearchGenerator(12, 12, word, type);
+                assertEquals(word, 1, countOccurrences(w.build(), word));
+            }
+        }
+    }
+
+    @Test
+    public void testRectangularGrid(){
+        WordSearchGenerator w = new WordSearchGenerator(4, 20, "hello", FillType.CharactersOfTheWord);
+        char[][] grid = w.build();
+        assertEquals(4, grid.length);
+        assertEquals(20, grid[0].length);
+        assertEquals(1, countOccurrences(grid, "hello"));
+    }
+
+    @Test
+    public void testStartAndEndPointOfWord(){
+        WordSearchGenerator w = new WordSearchGenerator(9, 9, "coding", FillType.RandomCharacters);
+        char[][] grid = w.build();
+        List<Point> points = w.getStartAndEndPointOfWord();
+        Point start = points.get(0);
+        Point end = points.get(1);
+        assertEquals('c', grid[start.x][start.y]);
+        assertEquals('g', grid[end.x][end.y]);
+    }
+
+    @Test
+    public void testMultipleWordsAppearOnce(){
+        List<String> words = Arrays.asList("apple", "banana", "cherry", "grape", "lemon", "mango", "melon", "olive",
+                "peach", "pear", "plum", "kiwi", "lime", "fig", "date");
+        for (FillType type : FillType.values()) {
+            WordSearchGenerator w = new WordSearchGenerator(20, 20, words, type);
+            char[][] grid = w.build();
+            for (String word : words)
+                assertEquals(word, 1, countOccurrences(grid, word));
+
+            List<Placement> placements = w.getPlacements();
+            assertEquals(words.size(), placements.size());
+            for (int i = 0; i < words.size(); i++) {
+                Placement p = placements.get(i);
+                assertEquals(words.get(i), p.word);
+                assertEquals(p.word.charAt(0), grid[p.start.x][p.start.y]);
+                assertEquals(p.word.charAt(p.word.length() - 1), grid[p.end.x][p.end.y]);
+            }
+        }
+    }
+
+    @Test
+    public void testBacktracking(){
+        String[] words = {"hey", "aba", "noon", "hello"};
+        for (String word : words) {
+            WordSearchGenerator w = new WordSearchGenerator(60, 60, word, FillType.CharactersOfTheWord);
+            w.setBacktracking(true);
+            for (int i = 0; i < 5; i++)
+                assertEquals(word, 1, countOccurrences(w.build(), word));
+        }
+    }
+
+    @Test
+    public void testSeedIsReproducible(){
+        List<String> words = Arrays.asList("apple", "lemon", "peach");
+        WordSearchGenerator a = new WordSearchGenerator(12, 12, words, FillType.RandomCharacters);
+        WordSearchGenerator b = new WordSearchGenerator(12, 12, words, FillType.RandomCharacters);
+        a.build();
+        a.setSeed(12345);
+        b.setSeed(12345);
+        assertArrayEquals(a.build(), b.build());
+    }
+
+    @Test
+    public void testRebuild(){
+        WordSearchGenerator w = new WordSearchGenerator(15, 15, "hello", FillType.CharactersOfTheWord);
+        char[][] dest = new char[15][15];
+        assertTrue(dest == w.buildInto(dest));
+        assertEquals(1, countOccurrences(dest, "hello"));
+
+        // Fewer words, then more and longer ones than before, on the same grid
+        List<String> fruits = Arrays.asList("apple", "banana", "cherry", "watermelon");
+        String[][] lists = {{"cat"}, fruits.toArray(new String[fruits.size()]), {"hello"}};
+        for (String[] list : lists) {
+            for (FillType type : FillType.values()) {
+                List<String> words = Arrays.asList(list);
+                w.setWords(words, type);
+                assertEquals(words, w.getWords());
+                w.buildInto(dest);
+                for (String word : words)
+                    assertEquals(word, 1, countOccurrences(dest, word));
+                assertEquals(words.size(), w.getPlacements().size());
+            }
+        }
+        assertEquals(1, countOccurrences(w.rebuild("world", FillType.RandomCharacters), "world"));
+        assertEquals("world", w.getWord());
+    }
+
+    @Test
+    public void testSetWordsInPlace(){
+        WordSearchGenerator w = new WordSearchGenerator(12, 12, Arrays.asList("cat", "mouse"), FillType.CharactersOfTheWord);
+        // Same shape, the profile is loaded again in place and the fill follows the new letters
+        List<String> words = Arrays.asList("dog", "horse");
+        char[][] grid = w.rebuild(words, FillType.CharactersOfTheWord);
+        assertEquals(words, w.getWords());
+        for (char[] row : grid)
+            for (char c : row)
+                assertTrue(String.valueOf(c), "doghrse".indexOf(c) >= 0);
+
+        // Rejected like the constructor rejects them, the generator keeps its words
+        List<List<String>> invalid = Arrays.asList(new ArrayList<String>(), Arrays.asList("cat", "concatenate"));
+        for (List<String> list : invalid) {
+            try {
+                w.setWords(list, FillType.CharactersOfTheWord);
+                assertTrue(list.toString(), false);
+            } catch (IllegalArgumentException e) {
+                assertEquals(words, w.getWords());
+                assertEquals("dog", w.getWord());
+            }
+        }
+        grid = w.build();
+        for (String word : words)
+            assertEquals(word, 1, countOccurrences(grid, word));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBuildIntoWrongSize(){
+        new WordSearchGenerator(5, 5, "hey", FillType.RandomCharacters).buildInto(new char[5][4]);
+    }
+
+    @Test
+    public void testStats(){
+        WordSearchGenerator w = new WordSearchGenerator(30, 30, "hello", FillType.CharactersOfTheWord);
+        w.build();
+        assertNull(w.getStats());
+
+        w.setMetricsEnabled(true);
+        for (int i = 0; i < 3; i++)
+            w.build();
+        GenerationStats stats = w.getStats();
+        assertEquals(3, stats.builds);
+        assertEquals(stats.retries + 3, stats.gridClears);
+        // Every successful build fills all the cells the word doesn't cover
+        assertTrue(stats.filledCells >= 3 * (30 * 30 - 5));
+        assertTrue(stats.insertAttempts >= 3);
+        assertTrue(stats.propagations > 0);
+        assertTrue(stats.rejectedCandidates > 0);
+
+        w.resetStats();
+        assertEquals(0, w.getStats().builds);
+    }
+
+    @Test
+    public void testGenerationListener(){
+        final List<GenerationStats> builds = new ArrayList<GenerationStats>();
+        WordSearchGenerator w = new WordSearchGenerator(15, 15, "hey", FillType.RandomCharacters);
+        w.setGenerationListener(new GenerationListener() {
+            public void onBuild(GenerationStats stats) {
+                builds.add(stats);
+            }
+        });
+        w.build();
+        w.build();
+        assertEquals(2, builds.size());
+        for (GenerationStats stats : builds)
+            assertEquals(1, stats.builds);
+        assertEquals(2, w.getStats().builds);
+    }
+
+    @Test
+    public void testBuildWithinDeadline(){
+        WordSearchGenerator w = new WordSearchGenerator(20, 20, "hello", FillType.CharactersOfTheWord);
+        BuildResult result = w.build(10, TimeUnit.SECONDS);
+        assertEquals(BuildStatus.Completed, result.status);
+        assertEquals(0, result.emptyCells);
+        assertEquals(1, countOccurrences(result.puzzle.grid, "hello"));
+        assertArrayEquals(w.getWordSearchCharMatrix(), result.puzzle.grid);
+    }
+
+    @Test
+    public void testDeadlineExceeded(){
+        // Filling with only 'a' next to the inserted "aa" always makes a second one, the build can never finish
+        WordSearchGenerator w = new WordSearchGenerator(3, 3, "aa", FillType.CharactersOfTheWord);
+        long start = System.nanoTime();
+        BuildResult result = w.build(CancellationToken.withTimeout(50, TimeUnit.MILLISECONDS), true);
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(5));
+        assertEquals(BuildStatus.DeadlineExceeded, result.status);
+        assertTrue(result.retries > 0);
+        assertEquals(3, result.puzzle.grid.length);
+        assertEquals(result.placedWords, result.puzzle.placements.size());
+    }
+
+    @Test
+    public void testCancelled(){
+        CancellationToken token = new CancellationToken();
+        token.cancel();
+        BuildResult result = new WordSearchGenerator(50, 50, "hello", FillType.RandomCharacters).build(token);
+        assertEquals(BuildStatus.Cancelled, result.status);
+        assertNull(result.puzzle);
+    }
+
+    @Test
+    public void testWordFillingItsOnlyLine(){
+        // One slot each way, random draws land on it straight away
+        WordSearchGenerator w = new WordSearchGenerator(1, 9, "timewatch", FillType.RandomCharacters);
+        String row = new String(w.build()[0]);
+        assertTrue(row.equals("timewatch") || row.equals("hctawemit"));
+        assertEquals(0, w.getBuildFailures());
+    }
+
+    @Test
+    public void testPlacementRanking(){
+        List<String> words = Arrays.asList("apple", "lemon", "melon", "peach", "grape", "plum");
+        for (PlacementRanking ranking : PlacementRanking.values()) {
+            WordSearchGenerator w = new WordSearchGenerator(9, 9, words, FillType.CharactersOfTheWord);
+            w.setPlacementRanking(ranking);
+            char[][] grid = w.build();
+            for (String word : words)
+                assertEquals(ranking + " " + word, 1, countOccurrences(grid, word));
+        }
+    }
+
+    @Test
+    public void testBalancedOrientations(){
+        List<String> words = Arrays.asList("one", "two", "six", "ten", "red", "tan", "sky", "map");
+        WordSearchGenerator w = new WordSearchGenerator(20, 20, words, FillType.RandomCharacters);
+        w.setPlacementRanking(PlacementRanking.BalanceOrientations);
+        w.build();
+        boolean[] used = new boolean[8];
+        for (Placement p : w.getPlacements())
+            used[p.orientation] = true;
+        for (boolean u : used)
+            assertTrue(u);
+    }
+
+    @Test
+    public void testDifficultyTracking(){
+        WordSearchGenerator w = new WordSearchGenerator(12, 12, "hello", FillType.CharactersOfTheWord);
+        w.build();
+        assertNull(w.getDifficulty());
+
+        // The counts made during the fill match a count over the finished grid, backtracking or not
+        String[][] lists = {{"hello"}, {"noon", "abba"}, {"apple", "kiwi", "pear", "plum"}, {"ab", "cd"}};
+        for (String[] list : lists) {
+            List<String> words = Arrays.asList(list);
+            for (FillType type : FillType.values()) {
+                w = new WordSearchGenerator(12, 12, words, type);
+                w.setDifficultyTracking(true);
+                for (int seed = 0; seed < 10; seed++) {
+                    w.setBacktracking(seed % 2 == 1);
+                    w.setSeed(seed);
+                    char[][] grid = w.build();
+                    DifficultyStats d = w.getDifficulty();
+                    assertEquals(words + " " + type, countDecoys(grid, words), d.decoys);
+                    assertEquals(words.size(), d.words);
+                    int reversed = 0;
+                    for (Placement p : w.getPlacements())
+                        if (p.orientation >= 4)
+                            reversed++;
+                    assertEquals(reversed, d.reversedPlacements);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testTargetDifficulty(){
+        List<String> words = Arrays.asList("apple", "kiwi", "pear", "plum");
+        for (FillType type : FillType.values()) {
+            WordSearchGenerator w = new WordSearchGenerator(15, 15, words, type);
+            for (Difficulty level : Difficulty.values()) {
+                w.setTargetDifficulty(level);
+                int inBand = 0;
+                for (int seed = 0; seed < 20; seed++) {
+                    w.setSeed(seed);
+                    char[][] grid = w.build();
+                    for (String word : words)
+                        assertEquals(word, 1, countOccurrences(grid, word));
+                    for (Placement p : w.getPlacements())
+                        assertTrue(level + " " + p.orientation, (level.orientations >> p.orientation & 1) != 0);
+                    if (w.getDifficulty().getLevel() == level)
+                        inBand++;
+                }
+                assertTrue(type + " " + level + " " + inBand, inBand >= 18);
+                assertEquals(0, w.getBuildFailures());
+            }
+            // Plain generation again, still tracked
+            w.setTargetDifficulty(null);
+            w.build();
+            assertNotNull(w.getDifficulty());
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testWordContainingAnotherWord(){
+        new WordSearchGenerator(10, 10, Arrays.asList("cat", "concatenate"), FillType.RandomCharacters);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testWordContainingAnotherWordReversed(){
+        new WordSearchGenerator(10, 10, Arrays.asList("tac", "concatenate"), FillType.RandomCharacters);
+    }
+
+    /**
+     * Counts the lines that spell a word in all but one letter, a palindrome's line only once
+     */
+    static int countDecoys(char[][] grid, List<String> words) {
+        int count = 0;
+        for (String word : words) {
+            if (word.length() == 1) continue;
+            int lines = 0;
+            for (int x = 0; x < grid.length; x++) {
+                for (int y = 0; y < grid[x].length; y++) {
+                    for (int o = 0; o < 8; o++) {
+                        Point end = WordSearchGenerator.getRelativePoint(o, new Point(x, y), word.length() - 1);
+                        if (end.x < 0 || end.x >= grid.length || end.y < 0 || end.y >= grid[end.x].length)
+                            continue;
+                        int mismatches = 0;
+                        for (int i = 0; i < word.length(); i++) {
+                            Point q = WordSearchGenerator.getRelativePoint(o, new Point(x, y), i);
+                            if (grid[q.x][q.y] != word.charAt(i))
+                                mismatches++;
+                        }
+                        if (mismatches == 1)
+                            lines++;
+                    }
+                }
+            }
+            count += word.equals(StringUtils.reverse(word)) ? lines / 2 : lines;
+        }
+        return count;
+    }
+
+    /**
+     * Counts the word by walking every cell in every orientation,
+     * a palindrome is only counted once for each set of cells
+     */
+    static int countOccurrences(char[][] grid, String word) {
+        boolean palindrome = word.equals(StringUtils.reverse(word));
+        int count = 0;
+        for (int x = 0; x < grid.length; x++) {
+            for (int y = 0; y < grid[x].length; y++) {
+                for (int o = 0; o < 8; o++) {
+                    int i = 0;
+                    Point p = new Point(x, y);
+                    while (i < word.length()) {
+                        Point q = WordSearchGenerator.getRelativePoint(o, p, i);
+                        if (q.x < 0 || q.x >= grid.length || q.y < 0 || q.y >= grid[q.x].length
+                                || grid[q.x][q.y] != word.charAt(i))
+                            break;
+                        i++;
+                    }
+                    if (i == word.length())
+                        count++;
+                }
+            }
+        }
+        return palindrome && word.length() > 1 ? count / 2 : count;
+    }
 }
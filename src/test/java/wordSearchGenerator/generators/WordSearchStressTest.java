@@ -0,0 +1,215 @@
+package wordSearchGenerator.generators;
+
+import org.junit.Test;
+import wordSearchGenerator.models.BuildResult;
+import wordSearchGenerator.models.BuildStatus;
+import wordSearchGenerator.models.Feasibility;
+import wordSearchGenerator.models.FeasibilityReport;
+import wordSearchGenerator.models.FillType;
+import wordSearchGenerator.models.Placement;
+import wordSearchGenerator.scanners.OccurrenceScanner;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Builds random specs, square and rectangular down to a single row or column, and checks every
+ * word appears exactly once where its placement says. Risky and infeasible specs are built too, with a short deadline:
+ * a spec screened infeasible must be refused or never complete, any other spec that completes must be a valid puzzle.
+ * Run at scale with -Dstress.specs=100000 -Dstress.maxSide=400, a failure prints the seed to replay it with -Dstress.seed.
+ * The time per cell of the completed builds, by grid size, goes to target/stress-report.txt or -Dstress.report
+ */
+public class WordSearchStressTest {
+    private static final int SPECS = Integer.getInteger("stress.specs", 300);
+    private static final int MAX_SIDE = Integer.getInteger("stress.maxSide", 60);
+    private static final long SEED = Long.getLong("stress.seed", 20141018L);
+
+    /**
+     * Deadline for the specs FeasibilityCheck doesn't class as feasible, long enough for most risky ones to complete
+     */
+    private static final long SHORT_DEADLINE_MILLIS = 250;
+
+    /**
+     * Side lengths are bucketed by powers of two for the time per cell
+     */
+    private static final int BUCKETS = 32;
+    private static final String REPORT = System.getProperty("stress.report", "target/stress-report.txt");
+
+    @Test
+    public void testRandomSpecs() throws IOException {
+        Random random = new Random(SEED);
+        int[] specs = new int[Feasibility.values().length];
+        int built = 0;
+        long[] nanos = new long[BUCKETS];
+        long[] cells = new long[BUCKETS];
+        int[] builds = new int[BUCKETS];
+        for (int i = 0; i < SPECS; i++) {
+            long seed = random.nextLong();
+            Random spec = new Random(seed);
+            int nRow = side(spec);
+            int nCol = side(spec);
+            List<String> words = words(spec, nRow, nCol);
+            FillType type = spec.nextBoolean() ? FillType.RandomCharacters : FillType.CharactersOfTheWord;
+            FeasibilityReport report = FeasibilityCheck.analyze(nRow, nCol, words, type);
+            boolean screenedOut = FeasibilityCheck.screen(nRow, nCol, words, type).feasibility == Feasibility.Infeasible;
+            specs[report.feasibility.ordinal()]++;
+
+            String name = "seed " + seed + ": " + nRow + "x" + nCol + " " + words + " " + type + " " + report;
+            WordSearchGenerator w;
+            try {
+                w = new WordSearchGenerator(nRow, nCol, words, type);
+            } catch (IllegalArgumentException e) {
+                assertTrue(name + " refused: " + e.getMessage(), screenedOut);
+                continue;
+            }
+            w.setSeed(seed);
+            BuildResult result = report.feasibility == Feasibility.Feasible
+                    ? w.build(30, TimeUnit.SECONDS)
+                    : w.build(SHORT_DEADLINE_MILLIS, TimeUnit.MILLISECONDS);
+            if (report.feasibility == Feasibility.Feasible)
+                assertTrue(name + " " + result, result.isCompleted());
+            if (screenedOut)
+                assertFalse(name + " completed", result.isCompleted());
+            if (result.isCompleted()) {
+                check(name, result.puzzle.grid, words, result.puzzle.placements);
+                int bucket = 31 - Integer.numberOfLeadingZeros(Math.max(nRow, nCol));
+                nanos[bucket] += result.elapsedNanos;
+                cells[bucket] += (long) nRow * nCol;
+                builds[bucket]++;
+                built++;
+            } else {
+                assertEquals(name, BuildStatus.DeadlineExceeded, result.status);
+            }
+        }
+        assertTrue(built > SPECS / 4);
+        for (Feasibility feasibility : Feasibility.values())
+            assertTrue("No " + feasibility + " spec came up", specs[feasibility.ordinal()] > 0);
+        report(built, nanos, cells, builds);
+    }
+
+    private static void report(int built, long[] nanos, long[] cells, int[] builds) throws IOException {
+        File file = new File(REPORT);
+        if (file.getParentFile() != null)
+            file.getParentFile().mkdirs();
+        Writer out = new OutputStreamWriter(new FileOutputStream(file), "UTF-8");
+        try {
+            out.write("Built " + built + " of " + SPECS + " specs, seed " + SEED + "\n");
+            out.write("longest side\tbuilds\tns per cell\n");
+            for (int b = 0; b < BUCKETS; b++) {
+                if (cells[b] > 0)
+                    out.write(String.format("%d-%d\t%d\t%.1f\n", 1 << b, (2 << b) - 1, builds[b], (double) nanos[b] / cells[b]));
+            }
+        } finally {
+            out.close();
+        }
+    }
+
+    @Test
+    public void testSingleRowAndColumn(){
+        for (int length = 1; length <= 12; length++) {
+            String word = "abcdefghijkl".substring(0, length);
+            for (int side = length; side <= 3 * length; side++) {
+                char[][] row = new WordSearchGenerator(1, side, word, FillType.RandomCharacters).build();
+                assertEquals(1, countWord(row, word));
+                char[][] column = new WordSearchGenerator(side, 1, word, FillType.RandomCharacters).build();
+                assertEquals(side, column.length);
+                assertEquals(1, countWord(column, word));
+            }
+        }
+    }
+
+    @Test
+    public void testStreamingRandomSpecs() throws Exception {
+        Random random = new Random(SEED + 1);
+        for (int i = 0; i < SPECS / 10; i++) {
+            long seed = random.nextLong();
+            Random spec = new Random(seed);
+            int nRow = side(spec);
+            int nCol = side(spec);
+            List<String> words = words(spec, nRow, nCol);
+            Feasibility feasibility = FeasibilityCheck.analyze(nRow, nCol, words, FillType.RandomCharacters).feasibility;
+            String name = "streaming seed " + seed + ": " + nRow + "x" + nCol + " " + words + " " + feasibility;
+            StreamingWordSearchGenerator g;
+            try {
+                g = new StreamingWordSearchGenerator(nRow, nCol, words, FillType.RandomCharacters);
+            } catch (IllegalArgumentException e) {
+                assertEquals(name, Feasibility.Infeasible,
+                        FeasibilityCheck.screen(nRow, nCol, words, FillType.RandomCharacters).feasibility);
+                continue;
+            }
+            g.setSeed(seed);
+            StringWriter out = new StringWriter();
+            List<Placement> placements;
+            try {
+                placements = g.generate(out);
+            } catch (StreamingWordSearchGenerator.PartialOutputException e) {
+                assertTrue(name, feasibility != Feasibility.Feasible);
+                assertEquals(name, e.rowsWritten, out.toString().split("\n").length);
+                continue;
+            } catch (IllegalStateException e) {
+                assertTrue(name, feasibility != Feasibility.Feasible);
+                assertEquals(name, "", out.toString());
+                continue;
+            }
+            String[] lines = out.toString().split("\n");
+            char[][] grid = new char[lines.length][];
+            for (int x = 0; x < lines.length; x++)
+                grid[x] = lines[x].toCharArray();
+            assertEquals(nRow, grid.length);
+            check(name, grid, words, placements);
+        }
+    }
+
+    /**
+     * Mostly small sides with the odd long one, so thin banners and tall strips come up often
+     */
+    private static int side(Random random) {
+        return random.nextInt(4) == 0 ? 1 + random.nextInt(MAX_SIDE) : 1 + random.nextInt(Math.min(MAX_SIDE, 12));
+    }
+
+    private static List<String> words(Random random, int nRow, int nCol) {
+        int nWords = 1 + random.nextInt(3);
+        char[] alphabet = "abcdefghijklmnopqrstuvwxyz".substring(0, 2 + random.nextInt(25)).toCharArray();
+        List<String> words = new ArrayList<String>();
+        int maxLength = Math.min(8, Math.max(nRow, nCol));
+        for (int w = 0; w < nWords; w++) {
+            char[] word = new char[1 + random.nextInt(maxLength)];
+            for (int i = 0; i < word.length; i++)
+                word[i] = alphabet[random.nextInt(alphabet.length)];
+            words.add(new String(word));
+        }
+        return words;
+    }
+
+    private static void check(String name, char[][] grid, List<String> words, List<Placement> placements) {
+        int[] counts = new OccurrenceScanner(words).count(grid);
+        for (int w = 0; w < words.size(); w++)
+            assertEquals(name + " " + words.get(w) + " " + Arrays.toString(counts), 1, counts[w]);
+        assertEquals(name, words.size(), placements.size());
+        for (Placement p : placements) {
+            String word = p.word;
+            for (int i = 0; i < word.length(); i++) {
+                int x = p.start.x + i * WordSearchEngine.X_DELTA[p.orientation];
+                int y = p.start.y + i * WordSearchEngine.Y_DELTA[p.orientation];
+                assertEquals(name, word.charAt(i), grid[x][y]);
+            }
+        }
+    }
+
+    private static int countWord(char[][] grid, String word) {
+        return new OccurrenceScanner(Arrays.asList(word)).count(grid)[0];
+    }
+}
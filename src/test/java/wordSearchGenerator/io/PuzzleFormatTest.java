@@ -0,0 +1,175 @@
+package wordSearchGenerator.io;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import wordSearchGenerator.generators.WordSearchGenerator;
+import wordSearchGenerator.models.FillType;
+import wordSearchGenerator.models.Placement;
+import wordSearchGenerator.models.Point;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.fail;
+
+public class PuzzleFormatTest {
+    private File mFile;
+
+    @Before
+    public void setUp() throws IOException {
+        mFile = File.createTempFile("puzzles", ".wsg");
+    }
+
+    @After
+    public void tearDown() {
+        mFile.delete();
+    }
+
+    @Test
+    public void testRoundTrip() throws IOException {
+        List<char[][]> grids = new ArrayList<char[][]>();
+        List<List<Placement>> placements = new ArrayList<List<Placement>>();
+        FileChannel channel = FileChannel.open(mFile.toPath(), StandardOpenOption.READ, StandardOpenOption.WRITE);
+        PuzzleWriter writer = new PuzzleWriter(channel);
+        for (int i = 0; i < 5; i++) {
+            WordSearchGenerator w = new WordSearchGenerator(7 + i, 13, Arrays.asList("apple", "kiwi"), FillType.RandomCharacters);
+            grids.add(w.build());
+            placements.add(w.getPlacements());
+            writer.write(w.getWordSearchCharMatrix(), w.getPlacements());
+        }
+        writer.close();
+
+        channel = FileChannel.open(mFile.toPath(), StandardOpenOption.READ);
+        PuzzleReader reader = new PuzzleReader(channel);
+        for (int i = 0; i < grids.size(); i++) {
+            MappedPuzzle puzzle = reader.next();
+            char[][] grid = grids.get(i);
+            assertEquals(grid.length, puzzle.getnRow());
+            assertEquals(13, puzzle.getnCol());
+            assertEquals(grid[3][11], puzzle.getLetter(3, 11));
+            assertArrayEquals(grid, puzzle.toCharMatrix());
+
+            List<Placement> expected = placements.get(i);
+            List<Placement> actual = puzzle.getPlacements();
+            assertEquals(expected.size(), actual.size());
+            for (int j = 0; j < expected.size(); j++) {
+                assertEquals(expected.get(j).word, actual.get(j).word);
+                assertEquals(expected.get(j).start, actual.get(j).start);
+                assertEquals(expected.get(j).end, actual.get(j).end);
+                assertEquals(expected.get(j).orientation, actual.get(j).orientation);
+            }
+        }
+        assertFalse(reader.hasNext());
+        channel.close();
+    }
+
+    @Test
+    public void testPackedSize() throws IOException {
+        FileChannel channel = FileChannel.open(mFile.toPath(), StandardOpenOption.READ, StandardOpenOption.WRITE);
+        char[][] grid = new char[100][100];
+        for (char[] row : grid)
+            Arrays.fill(row, 'q');
+        PuzzleWriter writer = new PuzzleWriter(channel);
+        writer.write(grid, Collections.<Placement>emptyList());
+        writer.close();
+        // 10000 cells at 5 bits is 6250 bytes
+        assertEquals(6250 + 1 + 4 + 4 + 4 + 4 + 1 + 2 + 2, mFile.length());
+    }
+
+    @Test
+    public void testWindows() throws IOException {
+        // Windows of a few records, so records keep running past the end of one
+        List<char[][]> grids = new ArrayList<char[][]>();
+        FileChannel channel = FileChannel.open(mFile.toPath(), StandardOpenOption.READ, StandardOpenOption.WRITE);
+        PuzzleWriter writer = new PuzzleWriter(channel, 300);
+        WordSearchGenerator w = new WordSearchGenerator(6, 6, Arrays.asList("apple", "kiwi"), FillType.RandomCharacters);
+        for (int i = 0; i < 2000; i++) {
+            // build() reuses the grid it returns
+            char[][] grid = w.build();
+            char[][] copy = new char[grid.length][];
+            for (int x = 0; x < grid.length; x++)
+                copy[x] = grid[x].clone();
+            grids.add(copy);
+            writer.write(grid, w.getPlacements());
+            if (i == 1000)
+                writer.force();
+        }
+        writer.close();
+
+        channel = FileChannel.open(mFile.toPath(), StandardOpenOption.READ);
+        PuzzleReader reader = new PuzzleReader(channel, 300);
+        for (char[][] grid : grids)
+            assertArrayEquals(grid, reader.next().toCharMatrix());
+        assertFalse(reader.hasNext());
+        channel.close();
+    }
+
+    @Test
+    public void testBuffered() throws IOException {
+        // The same bytes as the mapped writer, through a buffer smaller than one record
+        File buffered = File.createTempFile("buffered", ".wsg");
+        try {
+            FileChannel channel = FileChannel.open(mFile.toPath(), StandardOpenOption.READ, StandardOpenOption.WRITE);
+            PuzzleWriter mapped = new PuzzleWriter(channel);
+            channel = FileChannel.open(buffered.toPath(), StandardOpenOption.READ, StandardOpenOption.WRITE);
+            PuzzleWriter writer = new PuzzleWriter(channel, ByteBuffer.allocate(40));
+            WordSearchGenerator w = new WordSearchGenerator(8, 8, Arrays.asList("apple", "kiwi"), FillType.RandomCharacters);
+            for (int i = 0; i < 200; i++) {
+                w.build();
+                mapped.write(w.getWordSearchCharMatrix(), w.getPlacements());
+                writer.write(w.getWordSearchCharMatrix(), w.getPlacements());
+            }
+            mapped.close();
+            writer.close();
+            assertArrayEquals(Files.readAllBytes(mFile.toPath()), Files.readAllBytes(buffered.toPath()));
+        } finally {
+            buffered.delete();
+        }
+    }
+
+    @Test
+    public void testTooManyPlacements() throws IOException {
+        FileChannel channel = FileChannel.open(mFile.toPath(), StandardOpenOption.READ, StandardOpenOption.WRITE);
+        PuzzleWriter writer = new PuzzleWriter(channel);
+        Placement p = new Placement("q", new Point(0, 0), new Point(0, 0), 0);
+        try {
+            writer.write(new char[][]{{'q'}}, Collections.nCopies(PuzzleFormat.MAX_SHORT + 1, p));
+            fail();
+        } catch (IllegalArgumentException e) {
+            // Nothing was written
+        }
+        writer.write(new char[][]{{'q'}}, Collections.nCopies(PuzzleFormat.MAX_SHORT, p));
+        writer.close();
+
+        channel = FileChannel.open(mFile.toPath(), StandardOpenOption.READ);
+        PuzzleReader reader = new PuzzleReader(channel);
+        assertEquals(PuzzleFormat.MAX_SHORT, reader.next().getPlacements().size());
+        assertFalse(reader.hasNext());
+        channel.close();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testAlphabetTooLarge() throws IOException {
+        FileChannel channel = FileChannel.open(mFile.toPath(), StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            char[][] grid = new char[1][40];
+            for (int i = 0; i < 40; i++)
+                grid[0][i] = (char) ('A' + i);
+            new PuzzleWriter(channel).write(grid, Collections.<Placement>emptyList());
+        } finally {
+            channel.close();
+        }
+    }
+}
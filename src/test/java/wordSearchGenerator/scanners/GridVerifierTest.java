@@ -0,0 +1,82 @@
+package wordSearchGenerator.scanners;
+
+import org.junit.Test;
+import wordSearchGenerator.generators.WordSearchGenerator;
+import wordSearchGenerator.models.FillType;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class GridVerifierTest {
+
+    @Test
+    public void testSameCountsAsScanner(){
+        // Few letters so the words turn up many times, wide enough for full vectors and a scalar tail
+        List<String> words = Arrays.asList("ab", "aba", "abc", "cabbac", "b", "acbca");
+        Random random = new Random(3);
+        int[][] sizes = {{1, 1}, {3, 4}, {7, 33}, {40, 40}, {65, 130}, {130, 9}};
+        for (int[] size : sizes) {
+            char[][] grid = new char[size[0]][size[1]];
+            for (char[] row : grid)
+                for (int y = 0; y < row.length; y++)
+                    row[y] = "abc".charAt(random.nextInt(3));
+            int[] expected = new OccurrenceScanner(words).count(grid);
+            String name = size[0] + "x" + size[1];
+            assertArrayEquals(name, expected, new GridVerifier(words).count(grid));
+            assertArrayEquals(name, expected, GridVerifier.create(words).count(grid));
+        }
+    }
+
+    @Test
+    public void testVerify(){
+        List<String> words = Arrays.asList("apple", "banana", "cherry", "noon");
+        WordSearchGenerator w = new WordSearchGenerator(100, 100, words, FillType.CharactersOfTheWord);
+        char[][] grid = w.build();
+        GridVerifier verifier = GridVerifier.create(words);
+        assertTrue(verifier.verify(grid));
+
+        // A second "banana" along the first row, unless the first one was already there
+        "banana".getChars(0, 6, grid[0], 0);
+        int[] counts = new OccurrenceScanner(words).count(grid);
+        assertArrayEquals(counts, verifier.count(grid));
+        assertEquals(counts[1] == 1, verifier.verify(grid));
+    }
+
+    @Test
+    public void testLettersOutsideLatin1(){
+        char[][] grid = {"ab\u0101".toCharArray()};
+        assertArrayEquals(new int[]{1, 0}, GridVerifier.create(Arrays.asList("ab", "b\u0001")).count(grid));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testWordOutsideLatin1(){
+        GridVerifier.create(Arrays.asList("\u0101b"));
+    }
+
+    @Test
+    public void testVectorWithIncubatorModule() throws Exception {
+        // The vector profile adds jdk.incubator.vector to the tests, run without it there's only the scalar verifier
+        if (isModuleLoaded("jdk.incubator.vector"))
+            assertTrue(GridVerifier.isVectorAvailable());
+    }
+
+    /**
+     * ModuleLayer through reflection, the tests are compiled for JDKs that don't have it
+     */
+    private static boolean isModuleLoaded(String name) throws Exception {
+        Class<?> layer;
+        try {
+            layer = Class.forName("java.lang.ModuleLayer");
+        } catch (ClassNotFoundException e) {
+            return false;
+        }
+        Object boot = layer.getMethod("boot").invoke(null);
+        Object module = layer.getMethod("findModule", String.class).invoke(boot, name);
+        return (Boolean) module.getClass().getMethod("isPresent").invoke(module);
+    }
+}
@@ -0,0 +1,71 @@
+package wordSearchGenerator.scanners;
+
+import org.junit.Test;
+import wordSearchGenerator.generators.WordSearchGenerator;
+import wordSearchGenerator.models.FillType;
+import wordSearchGenerator.models.Placement;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class OccurrenceScannerTest {
+
+    private static final char[][] GRID = {
+            "abcd".toCharArray(),
+            "bbcb".toCharArray(),
+            "cbaa".toCharArray(),
+    };
+
+    @Test
+    public void testAllOrientations(){
+        // "abc" runs RIGHT and DOWN from (0,0) and UP from (2,2)
+        List<Placement> placements = OccurrenceScanner.findOccurrences(GRID, Arrays.asList("abc"));
+        assertEquals(3, placements.size());
+        for (Placement p : placements) {
+            assertEquals('a', GRID[p.start.x][p.start.y]);
+            assertEquals('c', GRID[p.end.x][p.end.y]);
+        }
+    }
+
+    @Test
+    public void testOverlappingWords(){
+        OccurrenceScanner scanner = new OccurrenceScanner(Arrays.asList("bc", "cb", "bcb"));
+        int[] counts = scanner.count(GRID);
+        // "bc" and "cb" are each other's reverse so they share every instance
+        assertEquals(counts[0], counts[1]);
+        assertEquals(1, counts[2]);
+    }
+
+    @Test
+    public void testSingleLetterCountedOnce(){
+        int[] counts = new OccurrenceScanner(Arrays.asList("d")).count(GRID);
+        assertArrayEquals(new int[]{1}, counts);
+    }
+
+    @Test
+    public void testPalindromeCountedOnce(){
+        char[][] grid = {"xnoonx".toCharArray()};
+        assertEquals(1, OccurrenceScanner.findOccurrences(grid, Arrays.asList("noon")).size());
+    }
+
+    @Test
+    public void testGeneratedPuzzle(){
+        List<String> words = Arrays.asList("apple", "banana", "cherry", "grape", "lemon");
+        WordSearchGenerator w = new WordSearchGenerator(15, 15, words, FillType.CharactersOfTheWord);
+        char[][] grid = w.build();
+        List<Placement> found = OccurrenceScanner.findOccurrences(grid, words);
+        assertEquals(words.size(), found.size());
+        for (Placement expected : w.getPlacements()) {
+            boolean match = false;
+            for (Placement p : found) {
+                match |= p.word.equals(expected.word)
+                        && ((p.start.equals(expected.start) && p.end.equals(expected.end))
+                        || (p.start.equals(expected.end) && p.end.equals(expected.start)));
+            }
+            assertEquals(expected.word, true, match);
+        }
+    }
+}
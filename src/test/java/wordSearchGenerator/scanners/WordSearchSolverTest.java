@@ -0,0 +1,91 @@
+package wordSearchGenerator.scanners;
+
+import org.junit.Test;
+import wordSearchGenerator.generators.WordSearchGenerator;
+import wordSearchGenerator.models.FillType;
+import wordSearchGenerator.models.Placement;
+import wordSearchGenerator.models.Point;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class WordSearchSolverTest {
+
+    private static final char[][] GRID = {
+            "abcd".toCharArray(),
+            "bbcb".toCharArray(),
+            "cbaa".toCharArray(),
+    };
+
+    @Test
+    public void testAllOrientations(){
+        WordSearchSolver solver = new WordSearchSolver(GRID, Arrays.asList("abc"));
+        List<Placement> placements = solver.solve();
+        assertEquals(3, placements.size());
+        for (Placement p : placements) {
+            assertEquals('a', GRID[p.start.x][p.start.y]);
+            assertEquals('c', GRID[p.end.x][p.end.y]);
+        }
+    }
+
+    @Test
+    public void testMatchesScanner(){
+        List<String> words = Arrays.asList("apple", "banana", "cherry", "grape", "lemon", "ab", "aa");
+        for (int i = 0; i < 10; i++) {
+            WordSearchGenerator w = new WordSearchGenerator(20, 17, words.subList(0, 5), FillType.CharactersOfTheWord);
+            char[][] grid = w.build();
+            int[] expected = new OccurrenceScanner(words).count(grid);
+            int[] counts = new int[words.size()];
+            for (Placement p : new WordSearchSolver(grid, words).solve())
+                counts[words.indexOf(p.word)]++;
+            assertEquals(Arrays.toString(expected), Arrays.toString(counts));
+        }
+    }
+
+    /**
+     * Two letters match everywhere, and widths around 64 put the shifted lines across words of the bitsets
+     */
+    @Test
+    public void testBitsetBoundaries(){
+        List<String> words = Arrays.asList("a", "ab", "aba", "bbb", "abab", "baabbaab");
+        int[][] sizes = {{1, 70}, {70, 1}, {3, 63}, {3, 64}, {5, 65}, {9, 13}, {40, 40}};
+        Random random = new Random(64);
+        for (int[] size : sizes) {
+            char[][] grid = new char[size[0]][size[1]];
+            for (char[] row : grid)
+                for (int y = 0; y < row.length; y++)
+                    row[y] = random.nextBoolean() ? 'a' : 'b';
+            int[] expected = new OccurrenceScanner(words).count(grid);
+            int[] counts = new int[words.size()];
+            for (Placement p : new WordSearchSolver(grid, words).solve()) {
+                counts[words.indexOf(p.word)]++;
+                for (int i = 0; i < p.word.length(); i++) {
+                    int x = p.start.x + i * GridIndex.X_DELTA[p.orientation];
+                    int y = p.start.y + i * GridIndex.Y_DELTA[p.orientation];
+                    assertEquals(p.word.charAt(i), grid[x][y]);
+                }
+            }
+            assertEquals(Arrays.toString(size), Arrays.toString(expected), Arrays.toString(counts));
+        }
+    }
+
+    @Test
+    public void testSegments(){
+        WordSearchSolver solver = new WordSearchSolver(GRID, Arrays.asList("abc", "bcb", "dc"));
+        assertEquals(0, solver.wordAt(0, 0, 2, 0));
+        assertEquals(0, solver.wordAt(2, 2, 2, 0));
+        assertEquals(1, solver.wordAt(1, 1, 1, 3));
+        assertEquals(2, solver.wordAt(0, 3, 1, 2));
+        assertTrue(solver.isWord(new Point(0, 0), new Point(0, 2)));
+        // Backwards, too short, not a line and off the grid
+        assertFalse(solver.isWord(new Point(0, 2), new Point(0, 0)));
+        assertFalse(solver.isWord(new Point(0, 0), new Point(0, 1)));
+        assertFalse(solver.isWord(new Point(0, 0), new Point(1, 2)));
+        assertFalse(solver.isWord(new Point(0, 0), new Point(0, 4)));
+    }
+}
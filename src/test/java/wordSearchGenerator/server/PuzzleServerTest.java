@@ -0,0 +1,153 @@
+package wordSearchGenerator.server;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+import static org.junit.Assert.assertTrue;
+
+public class PuzzleServerTest {
+    private PuzzleServer mServer;
+
+    @Before
+    public void setUp() throws IOException {
+        mServer = new PuzzleServer(new InetSocketAddress("127.0.0.1", 0), 5000);
+        mServer.start();
+    }
+
+    @After
+    public void tearDown() {
+        mServer.stop();
+    }
+
+    private HttpURLConnection open(String pathAndQuery) throws IOException {
+        return (HttpURLConnection) new URL("http://127.0.0.1:" + mServer.getPort() + pathAndQuery).openConnection();
+    }
+
+    private static String read(HttpURLConnection connection) throws IOException {
+        InputStream in = connection.getResponseCode() < 400 ? connection.getInputStream() : connection.getErrorStream();
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        byte[] buffer = new byte[4096];
+        for (int n; (n = in.read(buffer)) != -1; )
+            body.write(buffer, 0, n);
+        in.close();
+        return body.toString("UTF-8");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testGet() throws IOException {
+        HttpURLConnection connection = open("/puzzle?rows=8&cols=12&words=hello,world&fill=CharactersOfTheWord&seed=4");
+        assertEquals(200, connection.getResponseCode());
+        Map<String, Object> response = (Map<String, Object>) Json.parse(read(connection));
+        List<Object> grid = (List<Object>) response.get("grid");
+        assertEquals(8, grid.size());
+        assertEquals(12, ((String) grid.get(0)).length());
+        List<Object> placements = (List<Object>) response.get("placements");
+        assertEquals(2, placements.size());
+        assertEquals("hello", ((Map<String, Object>) placements.get(0)).get("word"));
+
+        // Same seed, same puzzle
+        HttpURLConnection again = open("/puzzle?rows=8&cols=12&words=hello,world&fill=CharactersOfTheWord&seed=4");
+        assertEquals(response, Json.parse(read(again)));
+    }
+
+    @Test
+    public void testPostJson() throws IOException {
+        HttpURLConnection connection = open("/puzzle");
+        connection.setRequestMethod("POST");
+        connection.setDoOutput(true);
+        OutputStream out = connection.getOutputStream();
+        out.write("{\"rows\": 10, \"cols\": 10, \"words\": [\"apple\", \"lemon\"]}".getBytes("UTF-8"));
+        out.close();
+        assertEquals(200, connection.getResponseCode());
+        assertTrue(read(connection).contains("\"lemon\""));
+    }
+
+    @Test
+    public void testBadRequests() throws IOException {
+        assertEquals(400, open("/puzzle?rows=0&cols=10&words=hey").getResponseCode());
+        assertEquals(400, open("/puzzle?rows=3&cols=3&words=hello").getResponseCode());
+        assertEquals(400, open("/puzzle?rows=5&cols=5").getResponseCode());
+        assertEquals(400, open("/puzzle?rows=5&cols=5&words=hey&fill=Nope").getResponseCode());
+        assertEquals(400, open("/puzzle?rows=5&cols=5&words=hey&timeout=0").getResponseCode());
+        assertEquals(400, open("/puzzle?rows=5&cols=5&words=hey&timeout=-5").getResponseCode());
+        HttpURLConnection contains = open("/puzzle?rows=12&cols=12&words=cat,concatenate");
+        assertEquals(400, contains.getResponseCode());
+        assertTrue(read(contains).contains("concatenate contains cat"));
+        // Filling with only 'a' next to the inserted "aa" always makes a second one
+        assertEquals(400, open("/puzzle?rows=3&cols=3&words=aa&fill=CharactersOfTheWord").getResponseCode());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testExactNumbers() throws IOException {
+        // Past 2^53 a double would round it to 9007199254740992
+        Map<String, Object> request = (Map<String, Object>) Json.parse(
+                "{\"rows\": 10, \"cols\": 10.0, \"words\": [\"apple\"], \"seed\": 9007199254740993}");
+        assertEquals(Long.valueOf(9007199254740993L), PuzzleServer.toSpec(request).seed);
+        assertEquals(10, PuzzleServer.toSpec(request).nCol);
+        assertEquals(Long.valueOf(9007199254740993L),
+                PuzzleServer.toSpec(PuzzleServer.parseQuery("rows=10&cols=10&words=apple&seed=9007199254740993")).seed);
+
+        String[] bad = {
+                "{\"rows\": 12.9, \"cols\": 10, \"words\": [\"apple\"]}",
+                "{\"rows\": 4294967306, \"cols\": 10, \"words\": [\"apple\"]}",
+                "{\"rows\": 10, \"cols\": 10, \"words\": [\"apple\"], \"seed\": 1.5}",
+                "{\"rows\": 10, \"cols\": 10, \"words\": [\"apple\"], \"seed\": 9223372036854775808}"
+        };
+        for (String body : bad) {
+            try {
+                PuzzleServer.toSpec((Map<String, Object>) Json.parse(body));
+                fail(body);
+            } catch (IllegalArgumentException expected) {
+            }
+        }
+    }
+
+    @Test
+    public void testBodyTooLarge() throws IOException {
+        byte[] body = new byte[PuzzleServer.MAX_BODY_BYTES + 1];
+        Arrays.fill(body, (byte) ' ');
+        // With a Content-Length and chunked, where only reading tells how long it is
+        for (boolean chunked : new boolean[]{false, true}) {
+            HttpURLConnection connection = open("/puzzle");
+            connection.setRequestMethod("POST");
+            connection.setDoOutput(true);
+            if (chunked)
+                connection.setChunkedStreamingMode(4096);
+            else
+                connection.setFixedLengthStreamingMode(body.length);
+            OutputStream out = connection.getOutputStream();
+            try {
+                out.write(body);
+                out.close();
+            } catch (IOException e) {
+                // The server answered without reading the rest
+            }
+            assertEquals(413, connection.getResponseCode());
+        }
+    }
+
+    @Test
+    public void testTimeout() throws IOException {
+        // The build stops itself at its deadline, that's a 504 too
+        for (int timeout : new int[]{1, 10, 50, 100}) {
+            HttpURLConnection connection = open("/puzzle?rows=2000&cols=2000&words=hello&timeout=" + timeout);
+            assertEquals(504, connection.getResponseCode());
+        }
+    }
+}
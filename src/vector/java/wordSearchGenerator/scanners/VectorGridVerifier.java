@@ -0,0 +1,47 @@
+package wordSearchGenerator.scanners;
+
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorSpecies;
+
+import java.util.List;
+
+/**
+ * GridVerifier on the jdk.incubator.vector API. A row of starting cells fills the lanes, each letter of the word
+ * is one load at the letter's offset along the axis and one compare for the word and one for its reverse.
+ * The loads along every axis are contiguous because the starting cells are. Columns left over after the last
+ * full vector go to the scalar version.
+ * <p>
+ * Built by the vector profile into the same jar and only loaded by GridVerifier.create
+ */
+class VectorGridVerifier extends GridVerifier {
+    private static final VectorSpecies<Byte> SPECIES = ByteVector.SPECIES_PREFERRED;
+
+    public VectorGridVerifier(List<String> words) {
+        super(words);
+    }
+
+    @Override
+    int countRow(byte[] grid, int nCol, int w, int axis, int x, int yFrom, int yTo) {
+        byte[] word = mWords[w];
+        int last = word.length - 1;
+        int step = X_DELTA[axis] * nCol + Y_DELTA[axis];
+        boolean palindrome = mPalindrome[w];
+        int lanes = SPECIES.length();
+        int count = 0;
+        int y = yFrom;
+        for (int start = x * nCol + y; y + lanes <= yTo; y += lanes, start += lanes) {
+            ByteVector first = ByteVector.fromArray(SPECIES, grid, start);
+            VectorMask<Byte> forward = first.eq(word[0]);
+            VectorMask<Byte> backward = palindrome ? SPECIES.maskAll(false) : first.eq(word[last]);
+            for (int i = 1, offset = start + step; i <= last; i++, offset += step) {
+                if (!forward.or(backward).anyTrue()) break;
+                ByteVector letters = ByteVector.fromArray(SPECIES, grid, offset);
+                forward = forward.and(letters.eq(word[i]));
+                backward = backward.and(letters.eq(word[last - i]));
+            }
+            count += forward.trueCount() + backward.trueCount();
+        }
+        return count + super.countRow(grid, nCol, w, axis, x, y, yTo);
+    }
+}